@@ -30,6 +30,7 @@
 import de.hasait.tanks.util.common.Abstract2DScreen;
 import de.hasait.tanks.util.common.Util;
 
+import java.nio.file.Paths;
 import java.util.concurrent.Future;
 
 /**
@@ -60,6 +61,9 @@ public ConnectingScreen(final TanksScreenContext pContext, final GameConfig pCon
 
         _config = pConfig;
         _world = new DistributedWorld();
+        _world.setWireFormat(_config.getWireFormat());
+        _world.setMaxUpdateMsgBytes(_config.getMaxUpdateMsgBytes());
+        _world.setInterestRadiusPieces(_config.getInterestRadiusPieces());
 
         setBackgroundColor(new Color(0.0f, 0.2f, 0.0f, 1.0f));
 
@@ -76,18 +80,20 @@ public ConnectingScreen(final TanksScreenContext pContext, final GameConfig pCon
     @Override
     protected void renderInternal(final float pDelta) {
         if (_connect == null) {
+            final String mapFile = _config.getMapFile();
             _connect = Util.EXECUTOR_SERVICE.submit(() -> _world
                     .connect(_config.getRoomName(), _config.getNetworkStack(), _config.getNetworkSystemProperties(), _config.getWishPiecesX(),
-                            _config.getWishPiecesY()
+                            _config.getWishPiecesY(), mapFile != null ? Paths.get(mapFile) : null
                     ));
         } else if (_connect.isDone() && _world.hasWorld()) {
+            // a map brings its own rules
+            if (_world.isRoomCreator() && _config.getMapFile() == null) {
+                _world.networkSend(_config.getRules());
+            }
             for (final PlayerConfig playerConfig : _config.getPlayers()) {
-                for (int i = 0; i < 2; i++) {
-                    _world.createObstacle();
-                }
                 _world.createTank(playerConfig);
             }
-            setScreen(new GameScreen(getContext(), _world));
+            setScreen(new GameScreen(getContext(), _config, _world));
         }
     }
 
@@ -22,22 +22,41 @@
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.LongMap;
 
 import de.hasait.tanks.app.common.model.AbstractGameObject;
 import de.hasait.tanks.app.common.model.AbstractState;
+import de.hasait.tanks.app.common.model.BulletStore;
 import de.hasait.tanks.app.common.model.DistributedWorld;
+import de.hasait.tanks.app.common.model.GameConfig;
 import de.hasait.tanks.app.common.model.LocalTank;
 import de.hasait.tanks.app.common.model.Tank;
 import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.app.common.msg.MapFileCodec;
 import de.hasait.tanks.util.common.Abstract2DScreen;
+import de.hasait.tanks.util.common.FixedTimestep;
 import de.hasait.tanks.util.common.Util;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
 /**
  *
  */
 public class GameScreen extends Abstract2DScreen<TanksScreenContext> {
 
+    /**
+     * Written to the working directory by F6, to be loaded as map of a new room.
+     */
+    private static final String MAP_FILE = "tanks.tmap";
+
     private final InputProcessor _inputProcessor = new InputAdapter() {
 
         @Override
@@ -46,6 +65,14 @@ public boolean keyUp(final int keycode) {
                 toggleBackgroundMusic();
                 return true;
             }
+            if (keycode == Keys.F3) {
+                _metricsVisible = !_metricsVisible;
+                return true;
+            }
+            if (keycode == Keys.F6) {
+                saveMap();
+                return true;
+            }
             if (keycode == Keys.ESCAPE) {
                 Gdx.app.exit();
             }
@@ -56,11 +83,33 @@ public boolean keyUp(final int keycode) {
     };
     private final DistributedWorld _world;
     private final TanksLogic _tanksLogic;
-    private final Texture _tankTexture;
-    private final Texture _turretTexture;
-    private final Texture _bulletTexture;
-    private final Texture _rockTexture;
+    private final FixedTimestep _fixedTimestep;
+    private final Runnable _tick = this::tick;
+    /**
+     * Simulation time of the last tick; advanced by one step per tick, so the ticks of one frame get their own times.
+     */
+    private double _tickMillis;
+    /**
+     * Tank states at the start of the last tick, rendering interpolates from these to the current states; bullets keep their
+     * previous positions in the BulletStore.
+     */
+    private final LongMap<AbstractState<?>> _previousStates = new LongMap<>();
+    private float _interpolationAlpha;
+    private final TankState _interpolatedTankState = new TankState();
+    private final BulletStore.Visitor _paintBullet = this::paintBullet;
+    private final ObstacleLayer.TileConsumer _paintTile = this::paintTile;
+    private final Consumer<Tank> _paintTank = this::paintTank;
+    /**
+     * Visible part of the world plus a margin for objects reaching into it; only objects within are drawn.
+     */
+    private final Rectangle _paintR = new Rectangle();
+    private final Vector2 _viewCenter = new Vector2();
+    private final TextureRegion _tankRegion;
+    private final TextureRegion _turretRegion;
+    private final TextureRegion _bulletRegion;
+    private final ObstacleLayer _obstacleLayer;
     private final Sound _shotSound;
+    private boolean _metricsVisible;
     private final TanksLogic.Callback _callback = new TanksLogic.Callback() {
         @Override
         public void onSpawnBullet() {
@@ -69,22 +118,28 @@ public void onSpawnBullet() {
     };
 
 
-    public GameScreen(final TanksScreenContext pContext, final DistributedWorld pWorld) {
-        super(pContext, pWorld.getWorld().getWorldW(), pWorld.getWorld().getWorldH());
+    public GameScreen(final TanksScreenContext pContext, final GameConfig pConfig, final DistributedWorld pWorld) {
+        super(pContext, viewSize(pConfig.getViewPiecesX(), pWorld.getWorld().getPiecesX(), pWorld.getWorld().getTankW()),
+                viewSize(pConfig.getViewPiecesY(), pWorld.getWorld().getPiecesY(), pWorld.getWorld().getTankH())
+        );
 
         _world = pWorld;
         addDisposable(_world);
         _tanksLogic = new TanksLogic(_world, _callback);
+        _tanksLogic.setSendHz(pConfig.getSendHz());
+        _fixedTimestep = new FixedTimestep(pConfig.getTickHz());
 
-        _tankTexture = loadTexture("Tank.png");
-        _turretTexture = loadTexture("Turret.png");
-        _bulletTexture = loadTexture("Bullet.png");
-        _rockTexture = loadTexture("Rock.png");
+        final TextureAtlas atlas = loadTextureAtlas(512, "Tank.png", "Turret.png", "Bullet.png", "Rock.png");
+        _tankRegion = atlas.findRegion("Tank");
+        _turretRegion = atlas.findRegion("Turret");
+        _bulletRegion = atlas.findRegion("Bullet");
 
         _shotSound = Gdx.audio.newSound(Gdx.files.internal("Shot.wav"));
         addDisposable(_shotSound);
 
         setBackgroundColor(new Color(0.7f, 0.7f, 0.2f, 1.0f));
+        _obstacleLayer = new ObstacleLayer(_world.getWorld(), atlas.findRegion("Rock"), getBackgroundColor());
+        addDisposable(_obstacleLayer);
         setBackgroundMusic("Music.mp3");
         setTextMargin(10.0f);
 
@@ -95,14 +150,30 @@ public GameScreen(final TanksScreenContext pContext, final DistributedWorld pWor
         }
     }
 
+    private static int viewSize(final int pViewPieces, final int pWorldPieces, final int pPieceSize) {
+        return (pViewPieces > 0 ? Math.min(pViewPieces, pWorldPieces) : pWorldPieces) * pPieceSize;
+    }
+
+    @Override
+    protected boolean renderOffscreen() {
+        // before the tick of this frame, the tiles around the view cover the difference
+        viewCenter(_viewCenter);
+        final float halfW = getViewportW() / 2.0f;
+        final float halfH = getViewportH() / 2.0f;
+        return _obstacleLayer.update(_viewCenter.x - halfW, _viewCenter.y - halfH, _viewCenter.x + halfW, _viewCenter.y + halfH);
+    }
+
     @Override
     protected void renderInternal(final float pDeltaTimeSeconds) {
-        paintFrame();
+        _interpolationAlpha = _fixedTimestep.advance(pDeltaTimeSeconds, _tick);
 
-        _tanksLogic.update(getTimeMillis(), pDeltaTimeSeconds);
+        final long startNanos = _world.getMetrics().getRenderLatency().start();
+        paintFrame();
+        _world.getMetrics().getRenderLatency().stop(startNanos);
+        _world.getMetrics().setRenderCalls(getLastRenderCalls());
     }
 
-    private TankState drawTankStatusText(final Tank pTank, final boolean pDamageInsteadOfPointsVisible, final boolean pSpawnVisible) {
+    private void drawTankStatusText(final Tank pTank, final boolean pDamageInsteadOfPointsVisible, final boolean pSpawnVisible) {
         final TankState state = pTank.getState();
         final StringBuilder sb = new StringBuilder();
         sb.append(pTank.getName());
@@ -125,32 +196,146 @@ private TankState drawTankStatusText(final Tank pTank, final boolean pDamageInst
         }
         drawText(sb.toString());
         drawText("");
+    }
+
+    /**
+     * @param pTarget reused instance receiving the interpolated state.
+     */
+    private <S extends AbstractState<S>> S interpolate(final S pState, final S pTarget) {
+        //noinspection unchecked
+        final S previous = (S) _previousStates.get(pState._id);
+        if (previous == null || previous == pState) {
+            return pState;
+        }
+        final S state = pTarget;
+        state.set(pState);
+        state._centerX = MathUtils.lerp(previous._centerX, pState._centerX, _interpolationAlpha);
+        state._centerY = MathUtils.lerp(previous._centerY, pState._centerY, _interpolationAlpha);
+        state._rotation = MathUtils.lerpAngleDeg(previous._rotation, pState._rotation, _interpolationAlpha);
+        if (state instanceof TankState) {
+            ((TankState) state)._turretRotation = MathUtils.lerpAngleDeg(((TankState) previous)._turretRotation,
+                    ((TankState) pState)._turretRotation, _interpolationAlpha
+            );
+        }
         return state;
     }
 
-    private void paintFrame() {
-        _tanksLogic.getLocalTanks().forEach(pTank -> drawTankStatusText(pTank, true, false));
+    /**
+     * Center the view on the living local tanks, but keep it within the world.
+     */
+    private void followLocalTanks() {
+        viewCenter(_viewCenter);
+        setCameraPosition(_viewCenter.x, _viewCenter.y);
 
-        _tanksLogic.getObstacles().forEach(pObstacle -> paintGameObject(pObstacle, _rockTexture));
-        _tanksLogic.getBullets().forEach(pBullet -> paintGameObject(pBullet, _bulletTexture));
+        final float halfW = getViewportW() / 2.0f;
+        final float halfH = getViewportH() / 2.0f;
+        final float margin = Math.max(_world.getWorld().getTankW(), _world.getWorld().getTankH());
+        _paintR.set(getCameraX() - halfW - margin, getCameraY() - halfH - margin, getViewportW() + 2 * margin,
+                getViewportH() + 2 * margin
+        );
+    }
 
-        for (final Tank tank : _tanksLogic.getTanks()) {
-            final TankState state = drawTankStatusText(tank, false, true);
+    /**
+     * Center of the living local tanks within the world; the current camera position if none is alive.
+     */
+    private void viewCenter(final Vector2 pTarget) {
+        float sumX = 0.0f;
+        float sumY = 0.0f;
+        int count = 0;
+        for (final Tank tank : _tanksLogic.getLocalTanks()) {
+            final TankState state = interpolate(tank.getState(), _interpolatedTankState);
             if (state._spawnAtMillis == null) {
-                paintGameObject(tank, state, _tankTexture);
-                drawTexture(_turretTexture, state._centerX, state._centerY, _world.getWorld().getTurretW(), _world.getWorld().getTurretH(),
-                        state._rotation + state._turretRotation
-                );
+                sumX += state._centerX;
+                sumY += state._centerY;
+                count++;
             }
         }
+        final float halfW = getViewportW() / 2.0f;
+        final float halfH = getViewportH() / 2.0f;
+        final float x = count > 0 ? sumX / count : getCameraX();
+        final float y = count > 0 ? sumY / count : getCameraY();
+        pTarget.set(MathUtils.clamp(x, halfW, _world.getWorld().getWorldW() - halfW),
+                MathUtils.clamp(y, halfH, _world.getWorld().getWorldH() - halfH)
+        );
     }
 
-    private <S extends AbstractState<S>> void paintGameObject(final AbstractGameObject<S> pGameObject, final Texture pTexture) {
-        paintGameObject(pGameObject, pGameObject.getState(), pTexture);
+    /**
+     * Background and obstacles come from the pre-rendered tiles, all other sprites from one atlas; text is drawn last, so a frame
+     * switches textures only a few times. Only objects near the visible part of the world are drawn.
+     */
+    private void paintFrame() {
+        followLocalTanks();
+
+        final float minX = _paintR.x;
+        final float minY = _paintR.y;
+        final float maxX = _paintR.x + _paintR.width;
+        final float maxY = _paintR.y + _paintR.height;
+        _obstacleLayer.forEachTile(minX, minY, maxX, maxY, _paintTile);
+        _tanksLogic.getBullets().forEach(_paintBullet);
+        _world.getWorld().findTanks(minX, minY, maxX, maxY, _paintTank);
+
+        _tanksLogic.getLocalTanks().forEach(pTank -> drawTankStatusText(pTank, true, false));
+        if (_metricsVisible) {
+            _world.getMetrics().getOverlayLines().forEach(this::drawText);
+            drawText("");
+        }
+        _tanksLogic.getTanks().forEach(pTank -> drawTankStatusText(pTank, false, true));
+    }
+
+    private boolean paintBullet(final BulletStore pBullets, final int pSlot) {
+        if (!_paintR.contains(pBullets.getX(pSlot), pBullets.getY(pSlot))) {
+            return true;
+        }
+        final float x = MathUtils.lerp(pBullets.getPreviousX(pSlot), pBullets.getX(pSlot), _interpolationAlpha);
+        final float y = MathUtils.lerp(pBullets.getPreviousY(pSlot), pBullets.getY(pSlot), _interpolationAlpha);
+        drawTexture(_bulletRegion, x, y, pBullets.getBulletW(), pBullets.getBulletH(), pBullets.getRotation(pSlot));
+        return true;
+    }
+
+    private <S extends AbstractState<S>> void paintGameObject(final AbstractGameObject<S> pGameObject, final S pState, final TextureRegion pRegion) {
+        drawTexture(pRegion, pState._centerX, pState._centerY, pGameObject.getWidth(), pGameObject.getHeight(), pState._rotation);
+    }
+
+    private void paintTile(final TextureRegion pRegion, final float pX, final float pY, final int pSize) {
+        drawTexture(pRegion, pX + pSize / 2.0f, pY + pSize / 2.0f, pSize, pSize, 0.0f);
     }
 
-    private <S extends AbstractState<S>> void paintGameObject(final AbstractGameObject<S> pGameObject, final S pState, final Texture pTexture) {
-        drawTexture(pTexture, pState._centerX, pState._centerY, pGameObject.getWidth(), pGameObject.getHeight(), pState._rotation);
+    private void paintTank(final Tank pTank) {
+        final TankState state = interpolate(pTank.getState(), _interpolatedTankState);
+        if (state._spawnAtMillis == null) {
+            paintGameObject(pTank, state, _tankRegion);
+            drawTexture(_turretRegion, state._centerX, state._centerY, _world.getWorld().getTurretW(), _world.getWorld().getTurretH(),
+                    state._rotation + state._turretRotation
+            );
+        }
+    }
+
+    private void saveMap() {
+        final Path path = Paths.get(MAP_FILE);
+        try {
+            MapFileCodec.write(_world.getWorld(), path);
+            Gdx.app.log("Map", "Saved " + path.toAbsolutePath());
+        } catch (final IOException pE) {
+            Gdx.app.error("Map", "Could not save " + path.toAbsolutePath(), pE);
+        }
+    }
+
+    private void tick() {
+        _previousStates.clear();
+        for (final Tank tank : _tanksLogic.getTanks()) {
+            _previousStates.put(tank.getId(), tank.getState());
+        }
+        _tanksLogic.getBullets().savePreviousPositions();
+
+        final double stepMillis = _fixedTimestep.getStepSeconds() * 1000.0;
+        _tickMillis += stepMillis;
+        final long timeMillis = getTimeMillis();
+        // the first ticks of a frame lag behind, up to all steps of the frame
+        if (Math.abs(timeMillis - _tickMillis) > (FixedTimestep.MAX_STEPS_PER_ADVANCE + 1) * stepMillis) {
+            // first tick, or steps were dropped: continue from the wall time
+            _tickMillis = timeMillis;
+        }
+        _tanksLogic.update((long) _tickMillis, _fixedTimestep.getStepSeconds());
     }
 
 }
\ No newline at end of file
@@ -23,6 +23,7 @@
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -202,6 +203,11 @@ protected void renderInternal(final float pDelta) {
             config.setNetworkStack(netStack);
             config.setWishPiecesX(40);
             config.setWishPiecesY(24);
+            config.setViewPiecesX(40);
+            config.setViewPiecesY(24);
+            // used if this node creates the room
+            config.getRules()._mapSeed = MathUtils.random.nextLong();
+            config.getRules()._mapObstacles = 20;
 
             for (int i = 0; i < _playerNameFields.size(); i++) {
                 final TextField playerNameField = _playerNameFields.get(i);
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.World;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Background and obstacles pre-rendered into square frame buffer tiles; a frame draws one quad per visible tile instead of one
+ * sprite per obstacle.
+ * <p>
+ * Only tiles around the view are rendered, when they come into view or when obstacles within them changed. Frame buffers of
+ * tiles out of view are reused, so at most {@value #MAX_BAKED_TILES} exist unless more are visible at once.
+ */
+public class ObstacleLayer implements Disposable {
+
+    /**
+     * Tile edge in world units, which are also the texture pixels.
+     */
+    private static final int TILE_SIZE = 512;
+
+    private static final int MAX_BAKED_TILES = 64;
+
+    private final World _world;
+    private final TextureRegion _obstacleRegion;
+    private final Color _backgroundColor;
+
+    private final int _tilesX, _tilesY;
+    /**
+     * Per tile, null if not rendered.
+     */
+    private final FrameBuffer[] _frameBuffers;
+    private final TextureRegion[] _tileRegions;
+    /**
+     * Per tile, the last {@link #update(float, float, float, float)} it was within; the oldest out of view is reused first.
+     */
+    private final long[] _tileUsed;
+    /**
+     * Per tile, 1 if obstacles within changed since it was rendered; set by the thread changing the obstacles.
+     */
+    private final AtomicIntegerArray _tileDirty;
+    private final Matrix4 _tileProjection = new Matrix4();
+    private final Consumer<Obstacle> _bakeObstacle = this::bakeObstacle;
+    private final Consumer<Obstacle> _obstacleChanged = this::obstacleChanged;
+    private final SpriteBatch _bakeBatch = new SpriteBatch();
+
+    private int _bakedTiles;
+    private long _updateCount;
+
+    public ObstacleLayer(final World pWorld, final TextureRegion pObstacleRegion, final Color pBackgroundColor) {
+        super();
+
+        _world = pWorld;
+        _obstacleRegion = pObstacleRegion;
+        _backgroundColor = pBackgroundColor;
+
+        _tilesX = (_world.getWorldW() + TILE_SIZE - 1) / TILE_SIZE;
+        _tilesY = (_world.getWorldH() + TILE_SIZE - 1) / TILE_SIZE;
+        _frameBuffers = new FrameBuffer[_tilesX * _tilesY];
+        _tileRegions = new TextureRegion[_frameBuffers.length];
+        _tileUsed = new long[_frameBuffers.length];
+        _tileDirty = new AtomicIntegerArray(_frameBuffers.length);
+
+        _world.addObstacleListener(_obstacleChanged);
+    }
+
+    @Override
+    public void dispose() {
+        _world.removeObstacleListener(_obstacleChanged);
+        _bakeBatch.dispose();
+        for (int i = 0; i < _frameBuffers.length; i++) {
+            if (_frameBuffers[i] != null) {
+                _frameBuffers[i].dispose();
+                _frameBuffers[i] = null;
+                _tileRegions[i] = null;
+            }
+        }
+        _bakedTiles = 0;
+    }
+
+    /**
+     * Call the consumer for each rendered tile overlapping the rectangle with its region and lower left world position.
+     */
+    public void forEachTile(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final TileConsumer pConsumer) {
+        final int minTX = Math.max(0, (int) (pMinX / TILE_SIZE));
+        final int minTY = Math.max(0, (int) (pMinY / TILE_SIZE));
+        final int maxTX = Math.min(_tilesX - 1, (int) (pMaxX / TILE_SIZE));
+        final int maxTY = Math.min(_tilesY - 1, (int) (pMaxY / TILE_SIZE));
+        for (int ty = minTY; ty <= maxTY; ty++) {
+            for (int tx = minTX; tx <= maxTX; tx++) {
+                final TextureRegion region = _tileRegions[ty * _tilesX + tx];
+                if (region != null) {
+                    pConsumer.accept(region, tx * TILE_SIZE, ty * TILE_SIZE, TILE_SIZE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the tiles overlapping the rectangle, plus one tile around it for a moving view, if they are new or their obstacles
+     * changed; must not be called between begin and end of another batch.
+     *
+     * @return true if any tile was rendered.
+     */
+    public boolean update(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY) {
+        _updateCount++;
+        final int minTX = Math.max(0, (int) (pMinX / TILE_SIZE) - 1);
+        final int minTY = Math.max(0, (int) (pMinY / TILE_SIZE) - 1);
+        final int maxTX = Math.min(_tilesX - 1, (int) (pMaxX / TILE_SIZE) + 1);
+        final int maxTY = Math.min(_tilesY - 1, (int) (pMaxY / TILE_SIZE) + 1);
+        // mark all first, so none of them is reused for another
+        for (int ty = minTY; ty <= maxTY; ty++) {
+            for (int tx = minTX; tx <= maxTX; tx++) {
+                _tileUsed[ty * _tilesX + tx] = _updateCount;
+            }
+        }
+        boolean rendered = false;
+        for (int ty = minTY; ty <= maxTY; ty++) {
+            for (int tx = minTX; tx <= maxTX; tx++) {
+                final int tile = ty * _tilesX + tx;
+                if (_frameBuffers[tile] == null) {
+                    assignFrameBuffer(tile);
+                    _tileDirty.set(tile, 0);
+                    bakeTile(tx, ty);
+                    rendered = true;
+                } else if (_tileDirty.getAndSet(tile, 0) != 0) {
+                    bakeTile(tx, ty);
+                    rendered = true;
+                }
+            }
+        }
+        return rendered;
+    }
+
+    private void assignFrameBuffer(final int pTile) {
+        if (_bakedTiles >= MAX_BAKED_TILES) {
+            int oldest = -1;
+            for (int i = 0; i < _frameBuffers.length; i++) {
+                if (_frameBuffers[i] != null && _tileUsed[i] < _updateCount && (oldest < 0 || _tileUsed[i] < _tileUsed[oldest])) {
+                    oldest = i;
+                }
+            }
+            if (oldest >= 0) {
+                _frameBuffers[pTile] = _frameBuffers[oldest];
+                _tileRegions[pTile] = _tileRegions[oldest];
+                _frameBuffers[oldest] = null;
+                _tileRegions[oldest] = null;
+                return;
+            }
+        }
+        _frameBuffers[pTile] = new FrameBuffer(Pixmap.Format.RGB888, TILE_SIZE, TILE_SIZE, false);
+        final Texture texture = _frameBuffers[pTile].getColorBufferTexture();
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        _tileRegions[pTile] = new TextureRegion(texture);
+        // frame buffer textures are upside down
+        _tileRegions[pTile].flip(false, true);
+        _bakedTiles++;
+    }
+
+    private void bakeObstacle(final Obstacle pObstacle) {
+        final float w = pObstacle.getWidth();
+        final float h = pObstacle.getHeight();
+        _bakeBatch.draw(_obstacleRegion, pObstacle.getState()._centerX - w / 2, pObstacle.getState()._centerY - h / 2, w / 2, h / 2, w, h,
+                1, 1, pObstacle.getState()._rotation
+        );
+    }
+
+    private void bakeTile(final int pTX, final int pTY) {
+        final FrameBuffer frameBuffer = _frameBuffers[pTY * _tilesX + pTX];
+        final float x = pTX * TILE_SIZE;
+        final float y = pTY * TILE_SIZE;
+        final float margin = Math.max(_world.getObstacleW(), _world.getObstacleH());
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(_backgroundColor.r, _backgroundColor.g, _backgroundColor.b, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        _tileProjection.setToOrtho2D(x, y, TILE_SIZE, TILE_SIZE);
+        _bakeBatch.setProjectionMatrix(_tileProjection);
+        _bakeBatch.begin();
+        // obstacles reaching into the tile are drawn into both tiles
+        _world.findObstacles(x - margin, y - margin, x + TILE_SIZE + margin, y + TILE_SIZE + margin, _bakeObstacle);
+        _bakeBatch.end();
+        frameBuffer.end();
+    }
+
+    /**
+     * Mark the tiles the obstacle reaches into, whatever its rotation.
+     */
+    private void obstacleChanged(final Obstacle pObstacle) {
+        final float radius = (pObstacle.getWidth() + pObstacle.getHeight()) / 2.0f;
+        final float centerX = pObstacle.getState()._centerX;
+        final float centerY = pObstacle.getState()._centerY;
+        final int minTX = Math.max(0, (int) ((centerX - radius) / TILE_SIZE));
+        final int minTY = Math.max(0, (int) ((centerY - radius) / TILE_SIZE));
+        final int maxTX = Math.min(_tilesX - 1, (int) ((centerX + radius) / TILE_SIZE));
+        final int maxTY = Math.min(_tilesY - 1, (int) ((centerY + radius) / TILE_SIZE));
+        for (int ty = minTY; ty <= maxTY; ty++) {
+            for (int tx = minTX; tx <= maxTX; tx++) {
+                _tileDirty.set(ty * _tilesX + tx, 1);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface TileConsumer {
+
+        void accept(TextureRegion pRegion, float pX, float pY, int pSize);
+
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common;
+
+import com.badlogic.gdx.utils.LongMap;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.TankState;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Decides which changed tank states are worth sending, based on the replication settings in {@link Rules}; changes are compared to
+ * the last sent state, so small changes add up until they pass a threshold.
+ */
+public class ReplicationThrottle {
+
+    private final LongMap<Sent> _sent = new LongMap<>();
+
+    private final AtomicLong _sentCount = new AtomicLong();
+    private final AtomicLong _suppressedCount = new AtomicLong();
+
+    private static float rotationDelta(final float pFrom, final float pTo) {
+        return Math.abs(((pTo - pFrom) % 360.0f + 540.0f) % 360.0f - 180.0f);
+    }
+
+    public long getSentCount() {
+        return _sentCount.get();
+    }
+
+    public long getSuppressedCount() {
+        return _suppressedCount.get();
+    }
+
+    /**
+     * Forget the last sent states of all other tanks, e.g. removed ones.
+     */
+    public void retain(final LongPredicate pTankIds) {
+        final Iterator<LongMap.Entry<Sent>> entryI = _sent.entries().iterator();
+        while (entryI.hasNext()) {
+            if (!pTankIds.test(entryI.next().key)) {
+                entryI.remove();
+            }
+        }
+    }
+
+    /**
+     * Called every update for every local tank, also without changes, so changes held back are sent after the keyframe interval.
+     *
+     * @return true if <code>pState</code> is to be sent; it is remembered as last sent state then.
+     */
+    public boolean shouldSend(final Rules pRules, final TankState pState, final long pTimeMillis) {
+        Sent sent = _sent.get(pState._id);
+        if (sent == null) {
+            sent = new Sent();
+            _sent.put(pState._id, sent);
+        } else if (!differs(sent._state, pState)) {
+            return false;
+        } else if (!isDue(pRules, sent, pState, pTimeMillis)) {
+            _suppressedCount.incrementAndGet();
+            return false;
+        }
+        sent._state.set(pState);
+        sent._timeMillis = pTimeMillis;
+        _sentCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return number of tanks with a last sent state.
+     */
+    public int size() {
+        return _sent.size;
+    }
+
+    private boolean differs(final TankState pSentState, final TankState pState) {
+        return pSentState._centerX != pState._centerX || pSentState._centerY != pState._centerY
+                || pSentState._rotation != pState._rotation || pSentState._turretRotation != pState._turretRotation
+                || pSentState._points != pState._points || pSentState._damage != pState._damage
+                || !Objects.equals(pSentState._spawnAtMillis, pState._spawnAtMillis);
+    }
+
+    private boolean isDue(final Rules pRules, final Sent pSent, final TankState pState, final long pTimeMillis) {
+        final TankState sentState = pSent._state;
+        if (sentState._points != pState._points || sentState._damage != pState._damage
+                || !Objects.equals(sentState._spawnAtMillis, pState._spawnAtMillis)) {
+            // game relevant, never delayed
+            return true;
+        }
+        final long sinceSentMillis = pTimeMillis - pSent._timeMillis;
+        if (sinceSentMillis >= pRules._keyframeIntervalMillis) {
+            return true;
+        }
+        if (pRules._maxTankSendHz > 0 && sinceSentMillis < 1000L / pRules._maxTankSendHz) {
+            return false;
+        }
+        final float dx = pState._centerX - sentState._centerX;
+        final float dy = pState._centerY - sentState._centerY;
+        return dx * dx + dy * dy > pRules._positionEpsilon * pRules._positionEpsilon
+                || rotationDelta(sentState._rotation, pState._rotation) > pRules._rotationEpsilon
+                || rotationDelta(sentState._turretRotation, pState._turretRotation) > pRules._rotationEpsilon;
+    }
+
+    private static final class Sent {
+
+        private final TankState _state = new TankState();
+        private long _timeMillis;
+
+    }
+
+}
@@ -17,22 +17,27 @@
 package de.hasait.tanks.app.common;
 
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Polygon;
-import de.hasait.tanks.app.common.model.AbstractGameObject;
-import de.hasait.tanks.app.common.model.Bullet;
-import de.hasait.tanks.app.common.model.BulletState;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import de.hasait.tanks.app.common.model.BulletStore;
 import de.hasait.tanks.app.common.model.DistributedWorld;
 import de.hasait.tanks.app.common.model.LocalTank;
 import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.ObstacleGeometry;
+import de.hasait.tanks.app.common.model.OrientedBox;
 import de.hasait.tanks.app.common.model.Rules;
 import de.hasait.tanks.app.common.model.Tank;
 import de.hasait.tanks.app.common.model.TankState;
 import de.hasait.tanks.app.common.msg.UpdateMsg;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  *
@@ -42,14 +47,28 @@ public class TanksLogic {
     private final DistributedWorld _world;
     private final Callback _callback;
 
+    private final PendingUpdate _pendingUpdate = new PendingUpdate();
+    private final UpdateMsg _updateMsg = new UpdateMsg();
+    private final UpdateContext _updateContext = new UpdateContext();
+    private final TankActions _tankActions = new TankActions();
+    private final ReplicationThrottle _replicationThrottle = new ReplicationThrottle();
+    private final OrientedBox _candidateBounds = new OrientedBox();
+    private final MoveCheck _moveCheck = new MoveCheck();
+    private final BulletHitCheck _bulletHitCheck = new BulletHitCheck();
+    private final RemoteBulletCheck _remoteBulletCheck = new RemoteBulletCheck();
+    private long _sendIntervalMillis;
+    private long _lastSendTimeMillis;
+
     public TanksLogic(final DistributedWorld pWorld, final Callback pCallback) {
         super();
 
         _world = pWorld;
         _callback = pCallback;
+
+        _world.getMetrics().setReplicationThrottle(_replicationThrottle);
     }
 
-    public Collection<Bullet> getBullets() {
+    public BulletStore getBullets() {
         return _world.getWorld().getBullets();
     }
 
@@ -65,6 +84,10 @@ public Collection<Obstacle> getObstacles() {
         return _world.getWorld().getObstacles();
     }
 
+    public ReplicationThrottle getReplicationThrottle() {
+        return _replicationThrottle;
+    }
+
     public Rules getRules() {
         return _world.getWorld().getRules();
     }
@@ -73,53 +96,73 @@ public Collection<Tank> getTanks() {
         return _world.getWorld().getTanks();
     }
 
+    /**
+     * Limit the rate of UpdateMsgs independent of the update rate; changes of several updates are merged into one message.
+     *
+     * @param pSendHz maximum messages per second; 0 sends after every update.
+     */
+    public void setSendHz(final int pSendHz) {
+        _sendIntervalMillis = pSendHz > 0 ? 1000L / pSendHz : 0L;
+    }
+
+    /**
+     * Apply the received messages, then advance all local tanks and their bullets by one simulation step; the new states are
+     * applied locally right away and sent to the other nodes at most with the configured send rate.
+     */
     public void update(final long pTimeMillis, final float pDeltaTimeSeconds) {
+        final long startNanos = _world.getMetrics().getTickLatency().start();
+        _world.drainInbox();
         for (final LocalTank localTank : getLocalLocalTanks()) {
-            final Optional<Tank> optionalTank = _world.getWorld().getTank(localTank.getTankUuid());
+            final Optional<Tank> optionalTank = _world.getWorld().getTank(localTank.getTankId());
             if (!optionalTank.isPresent()) {
                 // not yet received via network
                 continue;
             }
-            final UpdateContext updateContext = new UpdateContext(pTimeMillis, pDeltaTimeSeconds, localTank, optionalTank.get());
+            final UpdateContext updateContext = _updateContext;
+            updateContext.reset(pTimeMillis, pDeltaTimeSeconds, localTank, optionalTank.get());
 
             updateTank(updateContext);
             handleTankDamage(updateContext);
             handleTankReSpawn(updateContext);
             updateBullets(updateContext);
 
-
-            final UpdateMsg updateMsg = updateContext._updateMsg;
             if (updateContext._tankDirty) {
-                updateMsg._tanks.add(updateContext._newTankState);
+                _world.getWorld().apply(updateContext._newTankState);
             }
-
-            if (!updateMsg.isEmpty()) {
-                _world.networkSend(updateMsg);
+            final TankState tankState = updateContext._tank.getState();
+            if (_replicationThrottle.shouldSend(getRules(), tankState, pTimeMillis)) {
+                _pendingUpdate.putTank(tankState);
             }
         }
-    }
+        if (_replicationThrottle.size() > getLocalTanks().size()) {
+            // local tanks were removed
+            _replicationThrottle.retain(_world.getWorld()::isLocalTank);
+        }
 
-    private Map<AbstractGameObject<?>, Float> determineIntersections(final Tank pTank, final TankState pTankState) {
-        final Polygon bounds = pTankState == null ? pTank.getBounds() : pTank.createBounds(pTankState);
-        final float whDist2 = pTank.getWhDist2();
+        extrapolateRemoteTanks(pTimeMillis);
+        updateRemoteBullets(pDeltaTimeSeconds);
 
-        final Map<AbstractGameObject<?>, Float> intersections = new HashMap<>();
-        for (final Tank otherTank : getTanks()) {
-            if (pTank == otherTank) {
-                continue;
-            }
-            final Float distanceIfIntersects = otherTank.intersects(bounds, whDist2);
-            if (distanceIfIntersects != null) {
-                intersections.put(otherTank, distanceIfIntersects);
-            }
+        _world.updateInterest();
+        if (pTimeMillis - _lastSendTimeMillis >= _sendIntervalMillis && (!_pendingUpdate.isEmpty() || _world.isInterestsChanged())) {
+            _lastSendTimeMillis = pTimeMillis;
+            _pendingUpdate.fill(_updateMsg);
+            _world.networkSend(_updateMsg);
+            _updateMsg.clear();
+            _pendingUpdate.clear();
         }
-        for (final Obstacle obstacle : getObstacles()) {
-            final Float distanceIfIntersects = obstacle.intersects(bounds, whDist2);
-            if (distanceIfIntersects != null) {
-                intersections.put(obstacle, distanceIfIntersects);
+        _world.getMetrics().getTickLatency().stop(startNanos);
+    }
+
+    /**
+     * Move remote tanks along their direction since their last received state, until the next one arrives.
+     */
+    private void extrapolateRemoteTanks(final long pTimeMillis) {
+        for (final Tank tank : getTanks()) {
+            if (_world.getWorld().isLocalTank(tank.getId())) {
+                continue;
             }
+            _world.getWorld().extrapolate(tank, pTimeMillis);
         }
-        return intersections;
     }
 
     private void handleTankDamage(final UpdateContext pUpdateContext) {
@@ -143,7 +186,8 @@ private void handleTankReSpawn(final UpdateContext pUpdateContext) {
             newTankState._centerX = MathUtils.random() * _world.getWorld().getWorldW();
             newTankState._centerY = MathUtils.random() * _world.getWorld().getWorldH();
             newTankState._rotation = MathUtils.random() * 360.0f;
-            if (determineIntersections(pUpdateContext._tank, newTankState).isEmpty()) {
+            pUpdateContext._tank.fillBounds(newTankState, _candidateBounds);
+            if (!_moveCheck.isBlocked(pUpdateContext._tank, false)) {
                 pUpdateContext._tankDirty = true;
                 newTankState._damage = 0;
                 newTankState._spawnAtMillis = null;
@@ -152,46 +196,24 @@ private void handleTankReSpawn(final UpdateContext pUpdateContext) {
     }
 
     private void updateBullets(final UpdateContext pUpdateContext) {
-        final TankState newTankState = pUpdateContext._newTankState;
-        final UpdateMsg updateMsg = pUpdateContext._updateMsg;
         final float speed = pUpdateContext._deltaTimeSeconds * _world.getWorld().getBulletSpeed();
 
-        for (final Bullet bullet : getBullets()) {
-            if (!pUpdateContext._tank.isMyBullet(bullet)) {
-                continue;
-            }
-
-            final BulletState oldBulletState = bullet.getState();
-            final BulletState newBulletState = oldBulletState.clone();
-            bullet.move(speed, newBulletState);
-
-            boolean removeBullet = false;
-
-            if (!_world.getWorld().worldContains(newBulletState._centerX, newBulletState._centerY)) {
-                removeBullet = true;
-            } else {
-                for (final Tank tank : getTanks()) {
-                    if (tank.isMyBullet(bullet) || tank.getState()._spawnAtMillis != null) {
-                        continue;
-                    }
-                    if (tank.contains(newBulletState._centerX, newBulletState._centerY)) {
-                        removeBullet = true;
-                        updateMsg._incrementDamage.add(tank.getUuid());
-                        pUpdateContext._tankDirty = true;
-                        newTankState._points++;
-                    }
-                }
-                for (final Obstacle obstacle : getObstacles()) {
-                    if (obstacle.contains(newBulletState._centerX, newBulletState._centerY)) {
-                        removeBullet = true;
-                    }
-                }
-            }
+        _bulletHitCheck._updateContext = pUpdateContext;
+        _bulletHitCheck._distance = speed;
+        getBullets().advance(pUpdateContext._tank.getId(), speed, _bulletHitCheck);
+        _bulletHitCheck._updateContext = null;
+    }
 
-            if (removeBullet) {
-                updateMsg._removedBullets.add(newBulletState._uuid);
-            } else {
-                updateMsg._bullets.add(newBulletState);
+    /**
+     * Bullets are not replicated while flying, every node moves the bullets of remote tanks itself; hits are only decided by the
+     * owner, obstacles and the world border are static so they are checked here as well.
+     */
+    private void updateRemoteBullets(final float pDeltaTimeSeconds) {
+        final float speed = pDeltaTimeSeconds * _world.getWorld().getBulletSpeed();
+        _remoteBulletCheck._distance = speed;
+        for (final Tank tank : getTanks()) {
+            if (!_world.getWorld().isLocalTank(tank.getId())) {
+                getBullets().advance(tank.getId(), speed, _remoteBulletCheck);
             }
         }
     }
@@ -202,7 +224,7 @@ private void updateTank(final UpdateContext pUpdateContext) {
         final TankState newTankState = pUpdateContext._newTankState;
         final float speed = pUpdateContext._deltaTimeSeconds * _world.getWorld().getTankSpeed();
 
-        final TankActions tankActions = new TankActions();
+        final TankActions tankActions = _tankActions;
         localTank.getPlayerConfig().fillActions(tankActions);
 
 
@@ -214,20 +236,10 @@ private void updateTank(final UpdateContext pUpdateContext) {
             moveSpeed -= tankActions._moveBackward * speed;
         }
         if (moveSpeed != 0.0f) {
-            final Map<AbstractGameObject<?>, Float> beforeIntersections = determineIntersections(tank, null);
             tank.move(moveSpeed, newTankState);
-            final Map<AbstractGameObject<?>, Float> afterIntersections = determineIntersections(tank, newTankState);
-            boolean validMove = true;
-            for (final Map.Entry<AbstractGameObject<?>, Float> afterEntry : afterIntersections.entrySet()) {
-                final Float afterDistance = afterEntry.getValue();
-                final Float beforeDistance = beforeIntersections.get(afterEntry.getKey());
-                if (beforeDistance == null || afterDistance < beforeDistance) {
-                    validMove = false;
-                    break;
-                }
-            }
+            tank.fillBounds(newTankState, _candidateBounds);
 
-            if (!validMove) {
+            if (_moveCheck.isBlocked(tank, true)) {
                 newTankState._centerX = pUpdateContext._oldTankState._centerX;
                 newTankState._centerY = pUpdateContext._oldTankState._centerY;
             } else {
@@ -275,7 +287,7 @@ private void updateTank(final UpdateContext pUpdateContext) {
             if (newTankState._spawnAtMillis == null
                     && pUpdateContext._timeMillis - localTank.getLastShotTimeMillis() > getRules()._timeMillisBetweenShots) {
                 localTank.setLastShotTimeMillis(pUpdateContext._timeMillis);
-                _world.createBullet(tank);
+                _world.createBullet(tank, pUpdateContext._timeMillis);
                 _callback.onSpawnBullet();
             }
         }
@@ -287,33 +299,228 @@ public interface Callback {
 
     }
 
-    private static class UpdateContext {
-        private final long _timeMillis;
-        private final float _deltaTimeSeconds;
+    /**
+     * Checks the path of a moved bullet against the world bounds, tanks and obstacles, so fast bullets cannot pass through them
+     * between two updates; the first object on the path is hit and recorded in the pending update. Reused for all bullets to avoid
+     * allocation.
+     */
+    private final class BulletHitCheck implements BulletStore.Visitor, Consumer<Tank> {
+
+        private UpdateContext _updateContext;
+        private float _distance;
+        private long _tankId;
+        private float _x0, _y0, _x1, _y1;
+        /**
+         * Fraction of the path up to the first hit so far; above 1 for none.
+         */
+        private float _hitAt;
+        private Tank _hitTank;
+
+        @Override
+        public void accept(final Tank pTank) {
+            if (pTank.getId() == _tankId || pTank.getState()._spawnAtMillis != null) {
+                return;
+            }
+            final float enter = pTank.getBounds().intersectSegment(_x0, _y0, _x1, _y1);
+            if (enter >= 0.0f && enter < _hitAt) {
+                _hitAt = enter;
+                _hitTank = pTank;
+            }
+        }
 
-        private final LocalTank _localTank;
-        private final Tank _tank;
+        @Override
+        public boolean visit(final BulletStore pStore, final int pSlot) {
+            _tankId = pStore.getTankId(pSlot);
+            _x1 = pStore.getX(pSlot);
+            _y1 = pStore.getY(pSlot);
+            _x0 = _x1 - pStore.getDirectionX(pSlot) * _distance;
+            _y0 = _y1 - pStore.getDirectionY(pSlot) * _distance;
+            // leaving the world ends the path, unless something is hit on the way
+            _hitAt = _world.getWorld().worldContains(_x1, _y1) ? Float.POSITIVE_INFINITY : 1.0f;
+            _hitTank = null;
+            _world.getWorld().findTanks(Math.min(_x0, _x1), Math.min(_y0, _y1), Math.max(_x0, _x1), Math.max(_y0, _y1), this);
+            final float obstacleAt = _world.getWorld().getObstacleGeometry().intersectSegment(_x0, _y0, _x1, _y1);
+            if (obstacleAt >= 0.0f && obstacleAt < _hitAt) {
+                _hitAt = obstacleAt;
+                _hitTank = null;
+            }
+            if (_hitTank != null) {
+                final Optional<LocalTank> localHitTank = _world.getWorld().getLocalTank(_hitTank.getId());
+                if (localHitTank.isPresent()) {
+                    localHitTank.get().incrementDamageIncrement();
+                } else {
+                    _pendingUpdate._incrementDamage.add(_hitTank.getId());
+                }
+                _updateContext._tankDirty = true;
+                _updateContext._newTankState._points++;
+                _hitTank = null;
+            }
+            final boolean hit = _hitAt <= 1.0f;
+            if (hit) {
+                _pendingUpdate.removeBullet(pStore.getId(pSlot));
+            }
+            return !hit;
+        }
 
-        private final UpdateMsg _updateMsg;
+    }
 
-        private final TankState _oldTankState;
-        private final TankState _newTankState;
+    /**
+     * Checks the path of a moved remote bullet against the world bounds and obstacles; reused for all bullets to avoid
+     * allocation.
+     */
+    private final class RemoteBulletCheck implements BulletStore.Visitor {
+
+        private float _distance;
+
+        @Override
+        public boolean visit(final BulletStore pStore, final int pSlot) {
+            final float x = pStore.getX(pSlot);
+            final float y = pStore.getY(pSlot);
+            final float x0 = x - pStore.getDirectionX(pSlot) * _distance;
+            final float y0 = y - pStore.getDirectionY(pSlot) * _distance;
+            return _world.getWorld().worldContains(x, y) && _world.getWorld().getObstacleGeometry().intersectSegment(x0, y0, x, y) < 0.0f;
+        }
 
-        private boolean _tankDirty;
+    }
 
-        public UpdateContext(final long pTimeMillis, final float pDeltaTimeSeconds, final LocalTank pLocalTank, final Tank pTank) {
-            super();
+    /**
+     * Checks the candidate bounds of a tank against other tanks and obstacles; reused to avoid allocation.
+     */
+    private final class MoveCheck implements Consumer<Tank>, IntConsumer {
 
+        private Tank _tank;
+        private ObstacleGeometry _obstacleGeometry;
+        private boolean _allowSeparating;
+        private boolean _blocked;
+
+        @Override
+        public void accept(final Tank pTank) {
+            if (_blocked || pTank == _tank) {
+                return;
+            }
+            final float afterDistance = pTank.intersects(_candidateBounds);
+            if (afterDistance >= 0.0f) {
+                _blocked = !_allowSeparating || !isSeparating(afterDistance, pTank.intersects(_tank.getBounds()));
+            }
+        }
+
+        /**
+         * @param pObstacle index in the {@link ObstacleGeometry}.
+         */
+        @Override
+        public void accept(final int pObstacle) {
+            if (_blocked) {
+                return;
+            }
+            final float afterDistance = _obstacleGeometry.intersects(pObstacle, _candidateBounds);
+            if (afterDistance >= 0.0f) {
+                _blocked = !_allowSeparating || !isSeparating(afterDistance, _obstacleGeometry.intersects(pObstacle, _tank.getBounds()));
+            }
+        }
+
+        /**
+         * @param pAllowSeparating true to allow intersections which already exist at the current bounds as long as the distance
+         *                         does not shrink.
+         */
+        private boolean isBlocked(final Tank pTank, final boolean pAllowSeparating) {
+            _tank = pTank;
+            _allowSeparating = pAllowSeparating;
+            _blocked = false;
+            final float minX = _candidateBounds.getMinX();
+            final float minY = _candidateBounds.getMinY();
+            final float maxX = _candidateBounds.getMaxX();
+            final float maxY = _candidateBounds.getMaxY();
+            _world.getWorld().findTanks(minX, minY, maxX, maxY, this);
+            if (!_blocked) {
+                _obstacleGeometry = _world.getWorld().getObstacleGeometry();
+                _obstacleGeometry.query(minX, minY, maxX, maxY, this);
+                _obstacleGeometry = null;
+            }
+            _tank = null;
+            return _blocked;
+        }
+
+        /**
+         * Objects already intersecting must not get closer.
+         */
+        private boolean isSeparating(final float pAfterDistance, final float pBeforeDistance) {
+            return pBeforeDistance >= 0.0f && pAfterDistance >= pBeforeDistance;
+        }
+
+    }
+
+    /**
+     * Changes collected since the last sent UpdateMsg; only the latest state per object is kept, as a pooled copy, because the
+     * simulated states are double buffered and overwritten by the next update.
+     */
+    private static final class PendingUpdate {
+
+        private final LongMap<TankState> _tanks = new LongMap<>();
+        private final Set<Long> _removedBullets = new HashSet<>();
+        private final List<Long> _incrementDamage = new ArrayList<>();
+
+        private final Array<TankState> _freeTankStates = new Array<>();
+
+        private void clear() {
+            for (final TankState tankState : _tanks.values()) {
+                _freeTankStates.add(tankState);
+            }
+            _tanks.clear();
+            _removedBullets.clear();
+            _incrementDamage.clear();
+        }
+
+        private void fill(final UpdateMsg pUpdateMsg) {
+            for (final TankState tankState : _tanks.values()) {
+                pUpdateMsg._tanks.add(tankState);
+            }
+            pUpdateMsg._removedBullets.addAll(_removedBullets);
+            pUpdateMsg._incrementDamage.addAll(_incrementDamage);
+        }
+
+        private void putTank(final TankState pTankState) {
+            TankState copy = _tanks.get(pTankState._id);
+            if (copy == null) {
+                copy = _freeTankStates.size > 0 ? _freeTankStates.pop() : new TankState();
+                _tanks.put(pTankState._id, copy);
+            }
+            copy.set(pTankState);
+        }
+
+        private void removeBullet(final long pBulletId) {
+            _removedBullets.add(pBulletId);
+        }
+
+        private boolean isEmpty() {
+            return _tanks.size == 0 && _removedBullets.isEmpty() && _incrementDamage.isEmpty();
+        }
+
+    }
+
+    /**
+     * Reused for all tanks, see {@link #reset}.
+     */
+    private static class UpdateContext {
+        private long _timeMillis;
+        private float _deltaTimeSeconds;
+
+        private LocalTank _localTank;
+        private Tank _tank;
+
+        private TankState _oldTankState;
+        private TankState _newTankState;
+
+        private boolean _tankDirty;
+
+        private void reset(final long pTimeMillis, final float pDeltaTimeSeconds, final LocalTank pLocalTank, final Tank pTank) {
             _timeMillis = pTimeMillis;
             _deltaTimeSeconds = pDeltaTimeSeconds;
 
             _localTank = pLocalTank;
             _tank = pTank;
 
-            _updateMsg = new UpdateMsg();
-
             _oldTankState = _tank.getState();
-            _newTankState = _oldTankState.clone();
+            _newTankState = _tank.editState();
             _tankDirty = false;
         }
     }
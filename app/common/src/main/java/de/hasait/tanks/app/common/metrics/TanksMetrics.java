@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.metrics;
+
+import de.hasait.tanks.app.common.ReplicationThrottle;
+import de.hasait.tanks.app.common.model.DistributedWorld;
+import de.hasait.tanks.app.common.msg.UpdateMsg;
+import de.hasait.tanks.util.common.LatencyHistogram;
+import de.hasait.tanks.util.common.RateCounter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Timings and traffic of one room: tick, render and apply latencies, messages and bytes per type and direction, entity counts.
+ */
+public class TanksMetrics implements TanksMetricsMXBean {
+
+    private static final double P99 = 99.0;
+
+    private final DistributedWorld _world;
+
+    private final LatencyHistogram _tickLatency = new LatencyHistogram();
+    private final LatencyHistogram _renderLatency = new LatencyHistogram();
+    private final LatencyHistogram _applyLatency = new LatencyHistogram();
+
+    private final Map<String, Traffic> _sent = new ConcurrentHashMap<>();
+    private final Map<String, Traffic> _received = new ConcurrentHashMap<>();
+
+    private volatile ReplicationThrottle _replicationThrottle;
+    private volatile int _renderCalls;
+    private ObjectName _objectName;
+
+    public TanksMetrics(final DistributedWorld pWorld) {
+        super();
+
+        _world = pWorld;
+    }
+
+    /**
+     * @return short name of the message type, e.g. "UpdateMsg" or "Bullet".
+     */
+    private static String typeOf(final Object pMessage) {
+        return pMessage instanceof UpdateMsg || pMessage instanceof byte[] ? "UpdateMsg" : pMessage.getClass().getSimpleName();
+    }
+
+    private static Map<String, Double> rates(final Map<String, Traffic> pTraffic, final Function<Traffic, RateCounter> pCounter) {
+        final Map<String, Double> rates = new TreeMap<>();
+        pTraffic.forEach((pType, pTypeTraffic) -> rates.put(pType, pCounter.apply(pTypeTraffic).getRatePerSecond()));
+        return rates;
+    }
+
+    private static Map<String, Long> totals(final Map<String, Traffic> pTraffic, final Function<Traffic, RateCounter> pCounter) {
+        final Map<String, Long> totals = new TreeMap<>();
+        pTraffic.forEach((pType, pTypeTraffic) -> totals.put(pType, pCounter.apply(pTypeTraffic).getTotal()));
+        return totals;
+    }
+
+    public LatencyHistogram getApplyLatency() {
+        return _applyLatency;
+    }
+
+    @Override
+    public double getApplyMeanMillis() {
+        return _applyLatency.getMeanMillis();
+    }
+
+    @Override
+    public double getApplyP99Millis() {
+        return _applyLatency.getPercentileMillis(P99);
+    }
+
+    @Override
+    public int getBullets() {
+        return _world.hasWorld() ? _world.getWorld().getBullets().size() : 0;
+    }
+
+    @Override
+    public int getObstacles() {
+        return _world.hasWorld() ? _world.getWorld().getObstacles().size() : 0;
+    }
+
+    /**
+     * @return lines for an in-game overlay.
+     */
+    public List<String> getOverlayLines() {
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("tick %.2f/%.2f/%.2f ms  render %.2f/%.2f ms %d draw calls  apply %.3f/%.3f ms", getTickMeanMillis(),
+                getTickP99Millis(), getTickMaxMillis(), getRenderMeanMillis(), getRenderP99Millis(), getRenderCalls(),
+                getApplyMeanMillis(), getApplyP99Millis()
+        ));
+        lines.add(String.format("tanks %d  bullets %d  obstacles %d  tank states sent %d suppressed %d", getTanks(), getBullets(),
+                getObstacles(), getSentTankStates(), getSuppressedTankStates()
+        ));
+        addTrafficLines(lines, "out", _sent);
+        addTrafficLines(lines, "in", _received);
+        return lines;
+    }
+
+    @Override
+    public Map<String, Long> getReceivedBytes() {
+        return totals(_received, pTraffic -> pTraffic._bytes);
+    }
+
+    @Override
+    public Map<String, Double> getReceivedBytesPerSecond() {
+        return rates(_received, pTraffic -> pTraffic._bytes);
+    }
+
+    @Override
+    public Map<String, Long> getReceivedMessages() {
+        return totals(_received, pTraffic -> pTraffic._messages);
+    }
+
+    @Override
+    public Map<String, Double> getReceivedMessagesPerSecond() {
+        return rates(_received, pTraffic -> pTraffic._messages);
+    }
+
+    @Override
+    public int getRenderCalls() {
+        return _renderCalls;
+    }
+
+    public LatencyHistogram getRenderLatency() {
+        return _renderLatency;
+    }
+
+    @Override
+    public double getRenderMeanMillis() {
+        return _renderLatency.getMeanMillis();
+    }
+
+    @Override
+    public double getRenderP99Millis() {
+        return _renderLatency.getPercentileMillis(P99);
+    }
+
+    @Override
+    public Map<String, Long> getSentBytes() {
+        return totals(_sent, pTraffic -> pTraffic._bytes);
+    }
+
+    @Override
+    public Map<String, Double> getSentBytesPerSecond() {
+        return rates(_sent, pTraffic -> pTraffic._bytes);
+    }
+
+    @Override
+    public Map<String, Long> getSentMessages() {
+        return totals(_sent, pTraffic -> pTraffic._messages);
+    }
+
+    @Override
+    public Map<String, Double> getSentMessagesPerSecond() {
+        return rates(_sent, pTraffic -> pTraffic._messages);
+    }
+
+    @Override
+    public long getSentTankStates() {
+        final ReplicationThrottle replicationThrottle = _replicationThrottle;
+        return replicationThrottle == null ? 0L : replicationThrottle.getSentCount();
+    }
+
+    @Override
+    public long getSuppressedTankStates() {
+        final ReplicationThrottle replicationThrottle = _replicationThrottle;
+        return replicationThrottle == null ? 0L : replicationThrottle.getSuppressedCount();
+    }
+
+    @Override
+    public int getTanks() {
+        return _world.hasWorld() ? _world.getWorld().getTanks().size() : 0;
+    }
+
+    public LatencyHistogram getTickLatency() {
+        return _tickLatency;
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return _tickLatency.getMaxMillis();
+    }
+
+    @Override
+    public double getTickMeanMillis() {
+        return _tickLatency.getMeanMillis();
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return _tickLatency.getPercentileMillis(P99);
+    }
+
+    /**
+     * Register as <code>de.hasait.tanks:type=Room,name=&lt;room&gt;</code>; skipped if another world of this JVM already did.
+     */
+    public synchronized void registerMBean(final String pRoomName) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName objectName = new ObjectName("de.hasait.tanks:type=Room,name=" + ObjectName.quote(pRoomName));
+            if (_objectName == null && !server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                _objectName = objectName;
+            }
+        } catch (final JMException pE) {
+            throw new RuntimeException(pE);
+        }
+    }
+
+    public void received(final Object pMessage, final int pBytes) {
+        count(_received, pMessage, pBytes);
+    }
+
+    @Override
+    public void reset() {
+        _tickLatency.reset();
+        _renderLatency.reset();
+        _applyLatency.reset();
+    }
+
+    public void sent(final Object pMessage, final int pBytes) {
+        count(_sent, pMessage, pBytes);
+    }
+
+    public synchronized void unregisterMBean() {
+        if (_objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(_objectName);
+            } catch (final JMException pE) {
+                throw new RuntimeException(pE);
+            }
+            _objectName = null;
+        }
+    }
+
+    public void setRenderCalls(final int pRenderCalls) {
+        _renderCalls = pRenderCalls;
+    }
+
+    public void setReplicationThrottle(final ReplicationThrottle pReplicationThrottle) {
+        _replicationThrottle = pReplicationThrottle;
+    }
+
+    private void addTrafficLines(final List<String> pLines, final String pDirection, final Map<String, Traffic> pTraffic) {
+        new TreeMap<>(pTraffic).forEach((pType, pTypeTraffic) -> pLines.add(
+                String.format("%s %s: %.0f msg/s %.0f B/s", pDirection, pType, pTypeTraffic._messages.getRatePerSecond(),
+                        pTypeTraffic._bytes.getRatePerSecond()
+                )));
+    }
+
+    private void count(final Map<String, Traffic> pTraffic, final Object pMessage, final int pBytes) {
+        final Traffic traffic = pTraffic.computeIfAbsent(typeOf(pMessage), pType -> new Traffic());
+        traffic._messages.add(1L);
+        traffic._bytes.add(pBytes);
+    }
+
+    private static final class Traffic {
+
+        private final RateCounter _messages = new RateCounter();
+        private final RateCounter _bytes = new RateCounter();
+
+    }
+
+}
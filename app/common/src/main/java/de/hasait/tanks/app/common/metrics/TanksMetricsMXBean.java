@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link TanksMetrics}; latencies in milliseconds since the last reset, rates per second over the last second, totals since start.
+ */
+public interface TanksMetricsMXBean {
+
+    double getApplyMeanMillis();
+
+    double getApplyP99Millis();
+
+    int getBullets();
+
+    int getObstacles();
+
+    Map<String, Long> getReceivedBytes();
+
+    Map<String, Double> getReceivedBytesPerSecond();
+
+    Map<String, Long> getReceivedMessages();
+
+    Map<String, Double> getReceivedMessagesPerSecond();
+
+    /**
+     * @return draw calls of the game screen in the last frame.
+     */
+    int getRenderCalls();
+
+    double getRenderMeanMillis();
+
+    double getRenderP99Millis();
+
+    Map<String, Long> getSentBytes();
+
+    Map<String, Double> getSentBytesPerSecond();
+
+    Map<String, Long> getSentMessages();
+
+    Map<String, Double> getSentMessagesPerSecond();
+
+    long getSentTankStates();
+
+    long getSuppressedTankStates();
+
+    int getTanks();
+
+    double getTickMaxMillis();
+
+    double getTickMeanMillis();
+
+    double getTickP99Millis();
+
+    void reset();
+
+}
@@ -16,10 +16,6 @@
 
 package de.hasait.tanks.app.common.model;
 
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.Polygon;
-import com.badlogic.gdx.math.Vector2;
-
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -33,49 +29,68 @@
 
     private final String _ownerAddress;
     private final AtomicReference<S> _stateHolder = new AtomicReference<>();
+    /**
+     * Only touched by the thread simulating this object, see {@link #editState()}.
+     */
+    private S _backState;
 
     private final int _width;
     private final int _height;
-    private final float _whDist2;
-    private final AtomicReference<Polygon> _boundsHolder = new AtomicReference<>();
+    /**
+     * Double buffered like the state: a change fills the back box and publishes it, so readers on other threads never see a
+     * half-updated box.
+     */
+    private final AtomicReference<OrientedBox> _boundsHolder = new AtomicReference<>(new OrientedBox());
+    private OrientedBox _backBounds = new OrientedBox();
 
     protected AbstractGameObject(final String pOwnerAddress, final int pWidth, final int pHeight) {
         _ownerAddress = pOwnerAddress;
         _width = pWidth;
         _height = pHeight;
-        _whDist2 = (float) Math.sqrt(_width * _width + _height * _height) / 2.0f;
     }
 
     public final void apply(final S pNewState) {
         Objects.requireNonNull(pNewState);
 
         final S oldState = _stateHolder.getAndSet(pNewState);
+        if (pNewState == _backState) {
+            _backState = oldState;
+        }
         afterStateChange(oldState, pNewState);
     }
 
     public final boolean contains(final float pX, final float pY) {
-        return _boundsHolder.get().contains(pX, pY);
-    }
-
-    public final Polygon createBounds(final S pState) {
-        final float w2 = _width / 2.0f;
-        final float h2 = _height / 2.0f;
-        final Polygon bounds = new Polygon(new float[]{
-                -w2,
-                h2,
-                w2,
-                h2,
-                w2,
-                -h2,
-                -w2,
-                -h2
-        });
-        bounds.setPosition(pState._centerX, pState._centerY);
-        bounds.setRotation(pState._rotation);
-        return bounds;
+        return getBounds().contains(pX, pY);
+    }
+
+    /**
+     * Double buffering for the thread simulating this object: returns a reused instance initialized with the current state, to be
+     * published with {@link #apply(AbstractState)}. The replaced state becomes the next back buffer, so states of locally
+     * simulated objects must not be kept longer than one update.
+     */
+    public final S editState() {
+        final S state = getState();
+        S backState = _backState;
+        if (backState == null || backState == state) {
+            backState = state.clone();
+            _backState = backState;
+        } else {
+            backState.set(state);
+        }
+        return backState;
+    }
+
+    /**
+     * Set <code>pBounds</code> to the bounds this object would have in the given state.
+     */
+    public final void fillBounds(final S pState, final OrientedBox pBounds) {
+        pBounds.set(pState._centerX, pState._centerY, _width, _height, pState._rotation);
     }
 
-    public final Polygon getBounds() {
+    /**
+     * @return the current bounds; must not be modified and not be kept longer than one update, as the instance is reused.
+     */
+    public final OrientedBox getBounds() {
         return _boundsHolder.get();
     }
 
@@ -91,12 +106,8 @@ public final S getState() {
         return _stateHolder.get();
     }
 
-    public final String getUuid() {
-        return getState()._uuid;
-    }
-
-    public final float getWhDist2() {
-        return _whDist2;
+    public final long getId() {
+        return getState()._id;
     }
 
     public final int getWidth() {
@@ -104,33 +115,23 @@ public final int getWidth() {
     }
 
     /**
-     * @return distance if intersecting; otherwise null.
+     * @return distance of the centers if intersecting; otherwise a negative value.
      */
-    public final Float intersects(final AbstractGameObject<?> pOther) {
-        return intersects(pOther.getBounds(), pOther.getWhDist2());
+    public final float intersects(final AbstractGameObject<?> pOther) {
+        return intersects(pOther.getBounds());
     }
 
     /**
-     * @return distance if intersecting; otherwise null.
+     * @return distance of the centers if intersecting; otherwise a negative value.
      */
-    public final Float intersects(final Polygon pOtherBounds, final float pOtherWhDist2) {
-        if (pOtherBounds == null) {
-            return null;
-        }
-        final S state1 = getState();
-
-        final float distance = Vector2.dst(state1._centerX, state1._centerY, pOtherBounds.getX(), pOtherBounds.getY());
-        if (distance > _whDist2 + pOtherWhDist2) {
-            return null;
-        }
-
-        final Polygon bounds = _boundsHolder.get();
-
-        if (Intersector.intersectPolygons(bounds, pOtherBounds, new Polygon())) {
-            return distance;
+    public final float intersects(final OrientedBox pOtherBounds) {
+        final OrientedBox bounds = getBounds();
+        if (!bounds.intersects(pOtherBounds)) {
+            return -1.0f;
         }
-
-        return null;
+        final float dx = pOtherBounds.getCenterX() - bounds.getCenterX();
+        final float dy = pOtherBounds.getCenterY() - bounds.getCenterY();
+        return (float) Math.sqrt(dx * dx + dy * dy);
     }
 
     public final void setCenter(final float pCenterX, final float pCenterY) {
@@ -145,6 +146,11 @@ public final void setRotation(final float pRotation) {
         transformState(pState -> pState._rotation != pRotation, pState -> pState._rotation = pRotation);
     }
 
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + EntityIds.toString(getId()) + "]";
+    }
+
     protected void afterStateChange(final S pOldState, final S pNewState) {
         if (pOldState == null
                 || pOldState._centerX != pNewState._centerX
@@ -178,8 +184,10 @@ protected final void transformState(final Predicate<S> pStillNeeded, final Consu
         }
     }
 
-    private void updateBounds(final S pState) {
-        _boundsHolder.set(createBounds(pState));
+    private synchronized void updateBounds(final S pState) {
+        final OrientedBox bounds = _backBounds;
+        fillBounds(pState, bounds);
+        _backBounds = _boundsHolder.getAndSet(bounds);
     }
 
 }
@@ -16,33 +16,27 @@
 
 package de.hasait.tanks.app.common.model;
 
-import com.badlogic.gdx.math.Vector2;
-
-import java.util.concurrent.atomic.AtomicReference;
-
 /**
  *
  */
 public abstract class AbstractMovableGameObject<S extends AbstractState<S>> extends AbstractGameObject<S> {
 
-    private final AtomicReference<Vector2> _moveVectorHolder = new AtomicReference<>();
+    /**
+     * Unit vector of the rotation; written only together with the state, so no allocation per change.
+     */
+    private volatile float _moveX, _moveY;
 
     protected AbstractMovableGameObject(final String pOwnerAddress, final int pWidth, final int pHeight) {
         super(pOwnerAddress, pWidth, pHeight);
     }
 
-    public final Vector2 getMoveVector() {
-        return _moveVectorHolder.get();
-    }
-
     public final void move(final float pDistance) {
         transformState(pState -> true, pState -> move(pDistance, pState));
     }
 
     public final void move(final float pDistance, final S pState) {
-        final Vector2 moveVector = getMoveVector();
-        pState._centerX += moveVector.x * pDistance;
-        pState._centerY += moveVector.y * pDistance;
+        pState._centerX += _moveX * pDistance;
+        pState._centerY += _moveY * pDistance;
     }
 
     protected void afterStateChange(final S pOldState, final S pNewState) {
@@ -57,11 +51,10 @@ protected void fillSerialized(final AbstractMovableGameObjectSerialized<S> pSeri
     }
 
     private void updateMoveVector(final S pState) {
-        final Vector2 newMoveVector = new Vector2();
-        newMoveVector.x = 0;
-        newMoveVector.y = 1;
-        newMoveVector.rotate(pState._rotation);
-        _moveVectorHolder.set(newMoveVector);
+        // (0, 1) rotated counterclockwise
+        final double radians = Math.toRadians(pState._rotation);
+        _moveX = (float) -Math.sin(radians);
+        _moveY = (float) Math.cos(radians);
     }
 
 }
@@ -23,7 +23,7 @@
  */
 public abstract class AbstractState<S extends AbstractState<S>> implements Serializable, Cloneable {
 
-    public String _uuid;
+    public long _id;
 
     public float _centerX;
     public float _centerY;
@@ -38,4 +38,14 @@ public final S clone() {
         }
     }
 
+    /**
+     * Copy all fields of <code>pOther</code> into this instance.
+     */
+    public void set(final S pOther) {
+        _id = pOther._id;
+        _centerX = pOther._centerX;
+        _centerY = pOther._centerY;
+        _rotation = pOther._rotation;
+    }
+
 }
@@ -17,44 +17,63 @@
 package de.hasait.tanks.app.common.model;
 
 import java.io.ObjectStreamException;
-import java.util.UUID;
 
 /**
  *
  */
 public class Bullet extends AbstractMovableGameObject<BulletState> {
 
-    private final String _tankUuid;
+    private final long _tankId;
+    /**
+     * Time the bullet was fired at the given position, so receivers can catch up; 0 if unknown.
+     */
+    private final long _spawnMillis;
 
-    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final String pTankUuid, final BulletState pState) {
+    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final long pTankId, final BulletState pState,
+                  final long pSpawnMillis) {
         super(pOwnerAddress, pWidth, pHeight);
 
-        _tankUuid = pTankUuid;
+        _tankId = pTankId;
+        _spawnMillis = pSpawnMillis;
 
         apply(pState);
     }
 
-    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final String pTankUuid, final float pCenterX, final float pCenterY, final float pRotation) {
-        this(pOwnerAddress, pWidth, pHeight, pTankUuid, createState(pCenterX, pCenterY, pRotation));
+    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final long pTankId, final BulletState pState) {
+        this(pOwnerAddress, pWidth, pHeight, pTankId, pState, 0L);
     }
 
-    private static BulletState createState(final float pCenterX, final float pCenterY, final float pRotation) {
+    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final long pTankId, final long pId, final float pCenterX, final float pCenterY, final float pRotation) {
+        this(pOwnerAddress, pWidth, pHeight, pTankId, createState(pId, pCenterX, pCenterY, pRotation));
+    }
+
+    public Bullet(final String pOwnerAddress, final int pWidth, final int pHeight, final long pTankId, final long pId, final float pCenterX, final float pCenterY, final float pRotation,
+                  final long pSpawnMillis) {
+        this(pOwnerAddress, pWidth, pHeight, pTankId, createState(pId, pCenterX, pCenterY, pRotation), pSpawnMillis);
+    }
+
+    private static BulletState createState(final long pId, final float pCenterX, final float pCenterY, final float pRotation) {
         final BulletState state = new BulletState();
-        state._uuid = UUID.randomUUID().toString();
+        state._id = pId;
         state._centerX = pCenterX;
         state._centerY = pCenterY;
         state._rotation = pRotation;
         return state;
     }
 
-    public String getTankUuid() {
-        return _tankUuid;
+    public long getSpawnMillis() {
+        return _spawnMillis;
+    }
+
+    public long getTankId() {
+        return _tankId;
     }
 
     private Object writeReplace() throws ObjectStreamException {
         final BulletSerialized serialized = new BulletSerialized();
         fillSerialized(serialized);
-        serialized._tankUuid = _tankUuid;
+        serialized._tankId = _tankId;
+        serialized._spawnMillis = _spawnMillis;
         return serialized;
     }
 
@@ -23,10 +23,11 @@
  */
 public class BulletSerialized extends AbstractMovableGameObjectSerialized<BulletState> {
 
-    public String _tankUuid;
+    public long _tankId;
+    public long _spawnMillis;
 
     private Object readResolve() throws ObjectStreamException {
-        return new Bullet(_ownerAddress, _width, _height, _tankUuid, _state);
+        return new Bullet(_ownerAddress, _width, _height, _tankId, _state, _spawnMillis);
     }
 
 }
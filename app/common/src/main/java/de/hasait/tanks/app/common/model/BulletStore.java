@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import de.hasait.tanks.util.common.LongIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Structure of arrays for bullets: a bullet is only a slot with id, owning tank, position and direction, so moving all bullets
+ * is a tight loop over primitive arrays instead of a walk over individual objects.
+ * <p>
+ * Freed slots are reused via a free list. The slots of each tank are linked, so the simulation of a tank only walks its own
+ * bullets.
+ * <p>
+ * Only the simulation thread changes bullets, received ones are applied from its inbox; rendering runs on the same thread. The
+ * methods changing or walking bullets are synchronized nevertheless, as the state transfer reads them by {@link #toBullets()} on
+ * a JGroups thread and the metrics read {@link #size()} via JMX. The getters by slot are for visitors, which run under the lock.
+ */
+public class BulletStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Marks a free slot; {@link EntityIds} never creates 0.
+     */
+    private static final long NO_ID = 0L;
+
+    /**
+     * End of the linked slots of a tank.
+     */
+    private static final int NO_SLOT = -1;
+
+    private final int _bulletW, _bulletH;
+
+    private final LongIntMap _slotsById = new LongIntMap(INITIAL_CAPACITY);
+    private final LongMap<TankSlots> _slotsByTankId = new LongMap<>();
+    private final Array<TankSlots> _freeTankSlots = new Array<>();
+
+    private long[] _ids;
+    private long[] _tankIds;
+    private String[] _ownerAddresses;
+    private float[] _x, _y;
+    private float[] _previousX, _previousY;
+    private float[] _rotation;
+    private float[] _dx, _dy;
+    private int[] _nextOfTank, _previousOfTank;
+
+    private int[] _freeSlots;
+    private int _freeCount;
+    /**
+     * Slots at and above are unused and not on the free list.
+     */
+    private int _slotLimit;
+
+    public BulletStore(final int pBulletW, final int pBulletH) {
+        super();
+
+        _bulletW = pBulletW;
+        _bulletH = pBulletH;
+
+        _ids = new long[INITIAL_CAPACITY];
+        _tankIds = new long[INITIAL_CAPACITY];
+        _ownerAddresses = new String[INITIAL_CAPACITY];
+        _x = new float[INITIAL_CAPACITY];
+        _y = new float[INITIAL_CAPACITY];
+        _previousX = new float[INITIAL_CAPACITY];
+        _previousY = new float[INITIAL_CAPACITY];
+        _rotation = new float[INITIAL_CAPACITY];
+        _dx = new float[INITIAL_CAPACITY];
+        _dy = new float[INITIAL_CAPACITY];
+        _nextOfTank = new int[INITIAL_CAPACITY];
+        _previousOfTank = new int[INITIAL_CAPACITY];
+        _freeSlots = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return false if a bullet with the same id exists.
+     */
+    public boolean add(final Bullet pBullet) {
+        return add(pBullet, 0.0f);
+    }
+
+    /**
+     * @param pDistance the bullet is placed this far along its direction from the position of <code>pBullet</code>.
+     * @return false if a bullet with the same id exists.
+     */
+    public synchronized boolean add(final Bullet pBullet, final float pDistance) {
+        final BulletState state = pBullet.getState();
+        if (_slotsById.containsKey(state._id)) {
+            return false;
+        }
+        final int slot = allocateSlot();
+        _ids[slot] = state._id;
+        _tankIds[slot] = pBullet.getTankId();
+        _ownerAddresses[slot] = pBullet.getOwnerAddress();
+        setRotation(slot, state._rotation);
+        _x[slot] = state._centerX + _dx[slot] * pDistance;
+        _y[slot] = state._centerY + _dy[slot] * pDistance;
+        _previousX[slot] = _x[slot];
+        _previousY[slot] = _y[slot];
+        _slotsById.put(state._id, slot);
+        linkToTank(slot);
+        return true;
+    }
+
+    /**
+     * Move all bullets of the tank by <code>pDistance</code> along their direction; <code>pVisitor</code> decides afterwards which
+     * ones are removed.
+     */
+    public synchronized void advance(final long pTankId, final float pDistance, final Visitor pVisitor) {
+        final TankSlots tankSlots = _slotsByTankId.get(pTankId);
+        if (tankSlots == null) {
+            return;
+        }
+        final int[] nextOfTank = _nextOfTank;
+        final float[] x = _x;
+        final float[] y = _y;
+        final float[] dx = _dx;
+        final float[] dy = _dy;
+        int slot = tankSlots._first;
+        while (slot != NO_SLOT) {
+            // read before the slot is possibly freed
+            final int next = nextOfTank[slot];
+            x[slot] += dx[slot] * pDistance;
+            y[slot] += dy[slot] * pDistance;
+            if (!pVisitor.visit(this, slot)) {
+                freeSlot(slot);
+            }
+            slot = next;
+        }
+    }
+
+    /**
+     * Call <code>pVisitor</code> for every bullet; returning false removes the bullet.
+     */
+    public synchronized void forEach(final Visitor pVisitor) {
+        for (int slot = 0; slot < _slotLimit; slot++) {
+            if (_ids[slot] != NO_ID && !pVisitor.visit(this, slot)) {
+                freeSlot(slot);
+            }
+        }
+    }
+
+    public int getBulletH() {
+        return _bulletH;
+    }
+
+    public int getBulletW() {
+        return _bulletW;
+    }
+
+    /**
+     * @return x of the unit vector the bullet moves along.
+     */
+    public float getDirectionX(final int pSlot) {
+        return _dx[pSlot];
+    }
+
+    /**
+     * @return y of the unit vector the bullet moves along.
+     */
+    public float getDirectionY(final int pSlot) {
+        return _dy[pSlot];
+    }
+
+    public long getId(final int pSlot) {
+        return _ids[pSlot];
+    }
+
+    public String getOwnerAddress(final int pSlot) {
+        return _ownerAddresses[pSlot];
+    }
+
+    public float getPreviousX(final int pSlot) {
+        return _previousX[pSlot];
+    }
+
+    public float getPreviousY(final int pSlot) {
+        return _previousY[pSlot];
+    }
+
+    public float getRotation(final int pSlot) {
+        return _rotation[pSlot];
+    }
+
+    public long getTankId(final int pSlot) {
+        return _tankIds[pSlot];
+    }
+
+    public float getX(final int pSlot) {
+        return _x[pSlot];
+    }
+
+    public float getY(final int pSlot) {
+        return _y[pSlot];
+    }
+
+    /**
+     * @return false if unknown.
+     */
+    public synchronized boolean remove(final long pBulletId) {
+        final int slot = _slotsById.get(pBulletId, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        freeSlot(slot);
+        return true;
+    }
+
+    public synchronized void removeByOwnerAddress(final String pOwnerAddress) {
+        for (int slot = 0; slot < _slotLimit; slot++) {
+            if (_ids[slot] != NO_ID && pOwnerAddress.equals(_ownerAddresses[slot])) {
+                freeSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * Remember the current positions as previous ones, for interpolation while rendering.
+     */
+    public synchronized void savePreviousPositions() {
+        System.arraycopy(_x, 0, _previousX, 0, _slotLimit);
+        System.arraycopy(_y, 0, _previousY, 0, _slotLimit);
+    }
+
+    public synchronized int size() {
+        return _slotsById.size();
+    }
+
+    public synchronized int size(final long pTankId) {
+        final TankSlots tankSlots = _slotsByTankId.get(pTankId);
+        return tankSlots == null ? 0 : tankSlots._count;
+    }
+
+    /**
+     * @return new Bullet objects for all bullets, e.g. for the state transfer; not meant for per frame use.
+     */
+    public synchronized List<Bullet> toBullets() {
+        final List<Bullet> bullets = new ArrayList<>(_slotsById.size());
+        for (int slot = 0; slot < _slotLimit; slot++) {
+            if (_ids[slot] != NO_ID) {
+                bullets.add(new Bullet(_ownerAddresses[slot], _bulletW, _bulletH, _tankIds[slot], _ids[slot], _x[slot], _y[slot],
+                        _rotation[slot]
+                ));
+            }
+        }
+        return bullets;
+    }
+
+    private int allocateSlot() {
+        if (_freeCount > 0) {
+            return _freeSlots[--_freeCount];
+        }
+        if (_slotLimit == _ids.length) {
+            grow();
+        }
+        return _slotLimit++;
+    }
+
+    private void freeSlot(final int pSlot) {
+        unlinkFromTank(pSlot);
+        _slotsById.remove(_ids[pSlot], NO_SLOT);
+        _ids[pSlot] = NO_ID;
+        _ownerAddresses[pSlot] = null;
+        _freeSlots[_freeCount++] = pSlot;
+    }
+
+    private void grow() {
+        final int capacity = _ids.length * 2;
+        _ids = Arrays.copyOf(_ids, capacity);
+        _tankIds = Arrays.copyOf(_tankIds, capacity);
+        _ownerAddresses = Arrays.copyOf(_ownerAddresses, capacity);
+        _x = Arrays.copyOf(_x, capacity);
+        _y = Arrays.copyOf(_y, capacity);
+        _previousX = Arrays.copyOf(_previousX, capacity);
+        _previousY = Arrays.copyOf(_previousY, capacity);
+        _rotation = Arrays.copyOf(_rotation, capacity);
+        _dx = Arrays.copyOf(_dx, capacity);
+        _dy = Arrays.copyOf(_dy, capacity);
+        _nextOfTank = Arrays.copyOf(_nextOfTank, capacity);
+        _previousOfTank = Arrays.copyOf(_previousOfTank, capacity);
+        _freeSlots = Arrays.copyOf(_freeSlots, capacity);
+    }
+
+    private void linkToTank(final int pSlot) {
+        final long tankId = _tankIds[pSlot];
+        TankSlots tankSlots = _slotsByTankId.get(tankId);
+        if (tankSlots == null) {
+            tankSlots = _freeTankSlots.size > 0 ? _freeTankSlots.pop() : new TankSlots();
+            tankSlots._first = NO_SLOT;
+            tankSlots._count = 0;
+            _slotsByTankId.put(tankId, tankSlots);
+        }
+        _previousOfTank[pSlot] = NO_SLOT;
+        _nextOfTank[pSlot] = tankSlots._first;
+        if (tankSlots._first != NO_SLOT) {
+            _previousOfTank[tankSlots._first] = pSlot;
+        }
+        tankSlots._first = pSlot;
+        tankSlots._count++;
+    }
+
+    private void setRotation(final int pSlot, final float pRotation) {
+        _rotation[pSlot] = pRotation;
+        // (0, 1) rotated counterclockwise, same as AbstractMovableGameObject
+        final double radians = Math.toRadians(pRotation);
+        _dx[pSlot] = (float) -Math.sin(radians);
+        _dy[pSlot] = (float) Math.cos(radians);
+    }
+
+    private void unlinkFromTank(final int pSlot) {
+        final long tankId = _tankIds[pSlot];
+        final TankSlots tankSlots = _slotsByTankId.get(tankId);
+        final int previous = _previousOfTank[pSlot];
+        final int next = _nextOfTank[pSlot];
+        if (previous == NO_SLOT) {
+            tankSlots._first = next;
+        } else {
+            _nextOfTank[previous] = next;
+        }
+        if (next != NO_SLOT) {
+            _previousOfTank[next] = previous;
+        }
+        if (--tankSlots._count == 0) {
+            _slotsByTankId.remove(tankId);
+            _freeTankSlots.add(tankSlots);
+        }
+    }
+
+    /**
+     * Called with the store locked; read the bullet via the slot getters.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * @return false to remove the bullet.
+         */
+        boolean visit(BulletStore pStore, int pSlot);
+
+    }
+
+    private static final class TankSlots {
+
+        private int _first;
+        private int _count;
+
+    }
+
+}
@@ -16,26 +16,40 @@
 
 package de.hasait.tanks.app.common.model;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.TimeUtils;
+import de.hasait.tanks.app.common.metrics.TanksMetrics;
+import de.hasait.tanks.app.common.msg.InterestMsg;
+import de.hasait.tanks.app.common.msg.MapFileCodec;
+import de.hasait.tanks.app.common.msg.NodeIdsMsg;
 import de.hasait.tanks.app.common.msg.UpdateMsg;
+import de.hasait.tanks.app.common.msg.UpdateMsgCodec;
+import de.hasait.tanks.app.common.msg.WireFormat;
+import de.hasait.tanks.app.common.msg.WorldSnapshotCodec;
 import org.jgroups.Address;
 import org.jgroups.JChannel;
 import org.jgroups.Message;
 import org.jgroups.ReceiverAdapter;
 import org.jgroups.View;
+import org.jgroups.util.UUID;
 
-import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
@@ -44,24 +58,129 @@
  */
 public class DistributedWorld implements Disposable {
 
+    private static final String OFFLINE_ADDRESS = "offline";
+    private static final int OFFLINE_NODE_ID = 1;
+
+    /**
+     * Ethernet MTU minus IP, UDP and JGroups headers, so an encoded UpdateMsg is not fragmented.
+     */
+    public static final int DEFAULT_MAX_UPDATE_MSG_BYTES = 1200;
+
+    /**
+     * The current states of all local tanks are sent to every node with every this many UpdateMsgs, also of tanks outside its
+     * interest and without changes, so scores stay current.
+     */
+    private static final int FAR_TANKS_SEND_INTERVAL = 10;
+
+    /**
+     * Queued instead of a message when a node left, so its objects and everything known about it are removed by the simulation
+     * thread, after the messages it sent before.
+     */
+    private static final Object MEMBER_LEFT = new Object();
+
+    private static final long NODE_ID_TIMEOUT_MILLIS = 10000L;
+
     private final Set<Address> _channelMembers = new HashSet<>();
 
     private final AtomicReference<JChannel> _channel = new AtomicReference<>();
     private final AtomicReference<World> _world = new AtomicReference<>();
 
+    /**
+     * Node id per member address, assigned by the coordinator; ids of departed members stay reserved, as objects created by them
+     * (e.g. the obstacles of a map) may outlive them.
+     */
+    private final Map<String, Integer> _nodeIds = new ConcurrentHashMap<>();
+    private volatile int _nodeId;
+    /**
+     * Whether this node assigned the node ids in a previous view; only used by viewAccepted.
+     */
+    private boolean _nodeIdsCoordinator;
+    private final AtomicLong _idCounter = new AtomicLong();
+    private final AtomicLong _sendSequence = new AtomicLong();
+    /**
+     * Last {@link UpdateMsg#_sequence} applied per sender address; part of the state transfer.
+     */
+    private final Map<String, Long> _appliedSequences = new ConcurrentHashMap<>();
+
+    /**
+     * Messages received while the state transfer is running; <code>null</code> once the world exists.
+     */
+    private final Object _stateTransferLock = new Object();
+    private List<Received> _stateTransferBuffer;
+
+    /**
+     * Messages received by the JGroups threads, applied by the simulation thread in {@link #drainInbox()}.
+     */
+    private final Queue<Received> _inbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Regions announced by other nodes per address; nodes without entry receive the whole world.
+     */
+    private final Map<String, BitSet> _interests = new ConcurrentHashMap<>();
+    private final Map<String, UpdateMsgCodec> _unicastCodecs = new ConcurrentHashMap<>();
+    /**
+     * Ids of the local tanks within the regions of a node per address, as of the last UpdateMsg sent to it; a tank entering or
+     * leaving the regions is sent once more, so the node does not keep a stale state of it. Only used by the simulation thread.
+     */
+    private final Map<String, Set<Long>> _visibleTanks = new HashMap<>();
+    private final Set<Long> _updatedTankIds = new HashSet<>();
+    private final UpdateMsg _filteredUpdateMsg = new UpdateMsg();
+    private final BitSet _interestRegions = new BitSet();
+    private BitSet _announcedInterestRegions;
+    private volatile boolean _interestAnnounceNeeded;
+    private volatile boolean _interestsChanged;
+    private volatile int _interestRadiusPieces;
+    private boolean _routed;
+
+    private final UpdateMsgCodec _updateMsgCodec = new UpdateMsgCodec();
+    private final TanksMetrics _metrics = new TanksMetrics(this);
+    private volatile WireFormat _wireFormat = WireFormat.BINARY;
+    private volatile int _maxUpdateMsgBytes = DEFAULT_MAX_UPDATE_MSG_BYTES;
+    private volatile boolean _stateDeflated = true;
+    private volatile boolean _roomCreator;
+    private volatile boolean _offline;
+
+    /**
+     * The stacks shipped as <code>tanks-&lt;name&gt;.xml</code> replace the JGroups stacks of the same name, as those buffer the
+     * whole state transfer; other stacks are used as given.
+     */
+    private static String toStackConfig(final String pNetworkStack) {
+        final String shippedConfig = "tanks-" + pNetworkStack + ".xml";
+        if (DistributedWorld.class.getClassLoader().getResource(shippedConfig) != null) {
+            return shippedConfig;
+        }
+        return pNetworkStack + ".xml";
+    }
+
     public DistributedWorld() {
         super();
     }
 
     public void connect(final String pRoomName, final String pNetworkStack, final Map<String, String> pNetSysProperties,
                         final int pWishPiecesX, final int pWishPiecesY) {
+        connect(pRoomName, pNetworkStack, pNetSysProperties, pWishPiecesX, pWishPiecesY, null);
+    }
+
+    /**
+     * @param pMapFile map to create the world from if this node creates the room; <code>null</code> for an empty world of the
+     *                 wished size.
+     */
+    public void connect(final String pRoomName, final String pNetworkStack, final Map<String, String> pNetSysProperties,
+                        final int pWishPiecesX, final int pWishPiecesY, final Path pMapFile) {
         if (_channel.get() != null) {
             throw new IllegalStateException("Already connected");
         }
+        // the file is closed after reading; the buffer is released once the world exists
+        final AtomicReference<MapFileCodec.MapFile> mapFileHolder = new AtomicReference<>();
+        try {
+            mapFileHolder.set(pMapFile != null ? MapFileCodec.read(pMapFile) : null);
+        } catch (final IOException pE) {
+            throw new RuntimeException("Could not read map " + pMapFile, pE);
+        }
         final JChannel channel;
         try {
             pNetSysProperties.forEach(System::setProperty);
-            channel = new JChannel(pNetworkStack + ".xml");
+            channel = new JChannel(toStackConfig(pNetworkStack));
         } catch (Exception pE) {
             throw new RuntimeException("Could not create JChannel", pE);
         }
@@ -72,46 +191,88 @@ public void connect(final String pRoomName, final String pNetworkStack, final Ma
             channel.setReceiver(new ReceiverAdapter() {
                 @Override
                 public void getState(final OutputStream pOutput) throws Exception {
-                    try (final ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(pOutput, 1024))) {
-                        oos.writeInt(getWorld().getPiecesX());
-                        oos.writeInt(getWorld().getPiecesY());
-                        oos.writeObject(getWorld().getSharedState());
-                    }
+                    writeState(pOutput);
                 }
 
                 @Override
                 public void receive(final Message pMessage) {
-                    final Object received = pMessage.getObject();
-                    networkReceive(received);
+                    final byte[] buffer = pMessage.getRawBuffer();
+                    final Object received;
+                    if (UpdateMsgCodec.isEncoded(buffer, pMessage.getOffset(), pMessage.getLength())) {
+                        try {
+                            received = _updateMsgCodec.decode(buffer, pMessage.getOffset(), pMessage.getLength());
+                        } catch (final IOException pE) {
+                            throw new RuntimeException(pE);
+                        }
+                    } else {
+                        received = pMessage.getObject();
+                    }
+                    _metrics.received(received, pMessage.getLength());
+                    if (received instanceof NodeIdsMsg) {
+                        // needed before the world for creating objects
+                        putNodeIds(((NodeIdsMsg) received)._nodeIds);
+                        return;
+                    }
+                    final String sender = pMessage.getSrc().toString();
+                    synchronized (_stateTransferLock) {
+                        if (_stateTransferBuffer != null) {
+                            _stateTransferBuffer.add(new Received(sender, received));
+                            return;
+                        }
+                    }
+                    _inbox.add(new Received(sender, received));
                 }
 
                 @Override
                 public void setState(final InputStream pInput) throws Exception {
-                    try (final ObjectInputStream ois = new ObjectInputStream(pInput)) {
-                        initWorld(new World(ois.readInt(), ois.readInt()));
-                        //noinspection unchecked
-                        ((Iterable<Object>) ois.readObject()).forEach(DistributedWorld.this::networkReceive);
+                    // connect() blocks until the state is set, so nothing is simulated yet and the buffer can be applied directly
+                    final WorldSnapshotCodec.Snapshot snapshot = WorldSnapshotCodec.read(pInput);
+                    initWorld(snapshot.getWorld());
+                    _appliedSequences.putAll(snapshot.getSequences());
+                    putNodeIds(snapshot.getNodeIds());
+                    synchronized (_stateTransferLock) {
+                        for (final Received buffered : _stateTransferBuffer) {
+                            if (buffered._object instanceof UpdateMsg
+                                    && ((UpdateMsg) buffered._object)._sequence <= snapshot.getSequence(buffered._sender)) {
+                                // states are already in the snapshot, but the objects may have been created after the removal
+                                applyRemovals((UpdateMsg) buffered._object);
+                            } else {
+                                networkReceive(buffered._sender, buffered._object);
+                            }
+                        }
+                        _stateTransferBuffer = null;
                     }
                 }
 
                 @Override
                 public void viewAccepted(final View pView) {
                     final List<Address> members = pView.getMembers();
+                    if (members.get(0).equals(channel.getAddress())) {
+                        assignNodeIds(channel, members, !_nodeIdsCoordinator);
+                        _nodeIdsCoordinator = true;
+                    }
                     if (!hasWorld() && members.size() == 1) {
-                        initWorld(new World(pWishPiecesX, pWishPiecesY));
+                        final MapFileCodec.MapFile mapFile = mapFileHolder.getAndSet(null);
+                        initWorld(mapFile != null ? createWorld(mapFile) : new World(pWishPiecesX, pWishPiecesY));
+                        _roomCreator = true;
+                        synchronized (_stateTransferLock) {
+                            // nobody to transfer the state from
+                            _stateTransferBuffer = null;
+                        }
                     }
                     final Iterator<Address> entryI = _channelMembers.iterator();
                     while (entryI.hasNext()) {
                         final Address address = entryI.next();
                         if (!members.contains(address)) {
-                            final String addressString = address.toString();
                             entryI.remove();
-                            final Predicate<AbstractGameObject<?>> addressStringPredicate = pObject -> pObject.getOwnerAddress()
-                                    .equals(addressString);
-                            getWorld().removeTanks(addressStringPredicate);
-                            getWorld().removeBullets(addressStringPredicate);
+                            _inbox.add(new Received(address.toString(), MEMBER_LEFT));
                         }
                     }
+                    if (!_channelMembers.containsAll(members)) {
+                        // joined nodes have no baselines for deltas
+                        _updateMsgCodec.resetBaselines();
+                        _interestAnnounceNeeded = true;
+                    }
                     _channelMembers.addAll(members);
                 }
 
@@ -121,39 +282,48 @@ private void initWorld(final World pWorld) {
                     }
                 }
             });
+            synchronized (_stateTransferLock) {
+                _stateTransferBuffer = new ArrayList<>();
+            }
             channel.connect(pRoomName);
             channel.getState(null, 0);
+            awaitNodeId();
+            _metrics.registerMBean(pRoomName);
         } catch (Exception pE) {
             throw new RuntimeException(pE);
+        } finally {
+            // not used if the room existed already
+            mapFileHolder.set(null);
         }
     }
 
-    public void createBullet(final Tank pTank) {
-        final JChannel channel = getChannelNotNull();
-        final TankState state = pTank.getState();
-        final Bullet bullet = new Bullet(channel.getAddressAsString(), getWorld().getBulletW(), getWorld().getBulletH(), pTank.getUuid(),
-                state._centerX, state._centerY, state._rotation + state._turretRotation
-        );
-        networkSend(bullet);
+    /**
+     * Create a world without network; everything sent is received locally right away. Used for benchmarks.
+     */
+    public void connectOffline(final int pPiecesX, final int pPiecesY) {
+        if (_channel.get() != null || !_world.compareAndSet(null, new World(pPiecesX, pPiecesY))) {
+            throw new IllegalStateException("Already connected");
+        }
+        _offline = true;
+        _roomCreator = true;
     }
 
-    public void createObstacle() {
-        final JChannel channel = getChannelNotNull();
-        final Obstacle obstacle = new Obstacle(channel.getAddressAsString(),
-                (int) (getWorld().getObstacleW() * MathUtils.random(1.0f, 3.0f)),
-                (int) (getWorld().getObstacleH() * MathUtils.random(1.0f, 3.0f)),
-                getWorld().getWorldW() * MathUtils.random(), getWorld().getWorldH() * MathUtils.random(),
-                360.0f * MathUtils.random()
+    /**
+     * @param pTimeMillis time of the shot, so the other nodes can catch up with the bullet.
+     */
+    public void createBullet(final Tank pTank, final long pTimeMillis) {
+        final TankState state = pTank.getState();
+        final Bullet bullet = new Bullet(getOwnerAddress(), getWorld().getBulletW(), getWorld().getBulletH(), pTank.getId(), nextId(),
+                state._centerX, state._centerY, state._rotation + state._turretRotation, pTimeMillis
         );
-        networkSend(obstacle);
+        networkSend(bullet);
     }
 
     public void createTank(final PlayerConfig pPlayerConfig) {
-        final JChannel channel = getChannelNotNull();
-        final Tank tank = new Tank(channel.getAddressAsString(), getWorld().getTankW(), getWorld().getTankH(), pPlayerConfig.getName(),
+        final Tank tank = new Tank(getOwnerAddress(), getWorld().getTankW(), getWorld().getTankH(), pPlayerConfig.getName(), nextId(),
                 TimeUtils.millis() + getWorld().getRules()._spawnTimeMillis
         );
-        final LocalTank localTank = new LocalTank(tank.getUuid(), pPlayerConfig);
+        final LocalTank localTank = new LocalTank(tank.getId(), pPlayerConfig);
         getWorld().addLocalTank(localTank);
         networkSend(tank);
     }
@@ -164,9 +334,30 @@ public void dispose() {
         if (channel != null) {
             channel.close();
         }
+        _metrics.unregisterMBean();
+        _inbox.clear();
+        _nodeIds.clear();
+        _nodeId = 0;
+        _nodeIdsCoordinator = false;
+        _offline = false;
         _world.getAndSet(null);
     }
 
+    /**
+     * Apply all messages received since the last call; to be called by the simulation at the start of each tick, so the world
+     * does not change during the tick.
+     */
+    public void drainInbox() {
+        Received received;
+        while ((received = _inbox.poll()) != null) {
+            networkReceive(received._sender, received._object);
+        }
+    }
+
+    public TanksMetrics getMetrics() {
+        return _metrics;
+    }
+
     public World getWorld() {
         final World world = _world.get();
         if (world == null) {
@@ -175,19 +366,214 @@ public World getWorld() {
         return world;
     }
 
+    public int getMaxUpdateMsgBytes() {
+        return _maxUpdateMsgBytes;
+    }
+
+    /**
+     * Binary UpdateMsgs larger than this are split into several messages.
+     */
+    public void setMaxUpdateMsgBytes(final int pMaxUpdateMsgBytes) {
+        _maxUpdateMsgBytes = pMaxUpdateMsgBytes;
+    }
+
+    public WireFormat getWireFormat() {
+        return _wireFormat;
+    }
+
+    public void setWireFormat(final WireFormat pWireFormat) {
+        _wireFormat = pWireFormat;
+    }
+
+    public int getInterestRadiusPieces() {
+        return _interestRadiusPieces;
+    }
+
+    /**
+     * Receive tank and bullet states only for regions within this many pieces of the local tanks; 0 for the whole world.
+     */
+    public void setInterestRadiusPieces(final int pInterestRadiusPieces) {
+        _interestRadiusPieces = pInterestRadiusPieces;
+    }
+
+    public boolean isStateDeflated() {
+        return _stateDeflated;
+    }
+
+    /**
+     * Whether the snapshot for joining nodes is compressed.
+     */
+    public void setStateDeflated(final boolean pStateDeflated) {
+        _stateDeflated = pStateDeflated;
+    }
+
     public boolean hasWorld() {
         return _world.get() != null;
     }
 
+    /**
+     * @return true if this node was the first in the room and created the world.
+     */
+    public boolean isRoomCreator() {
+        return _roomCreator;
+    }
+
+    /**
+     * @return true if another node announced different regions since the last UpdateMsg, so tanks may have entered or left them
+     * without any change to send.
+     */
+    public boolean isInterestsChanged() {
+        return _interestsChanged;
+    }
+
+    /**
+     * The object is serialized before this method returns, so callers may reuse it; UpdateMsgs get the next sequence number.
+     */
     public void networkSend(final Object pObject) {
+        if (pObject instanceof UpdateMsg) {
+            ((UpdateMsg) pObject)._sequence = _sendSequence.incrementAndGet();
+        }
+        if (_offline) {
+            if (!(pObject instanceof UpdateMsg)) {
+                networkReceive(OFFLINE_ADDRESS, pObject);
+            }
+            return;
+        }
         final JChannel channel = getChannelNotNull();
         try {
-            channel.send(new Message(null, pObject));
+            if (pObject instanceof UpdateMsg && !_interests.isEmpty()) {
+                sendRouted(channel, (UpdateMsg) pObject);
+            } else if (pObject instanceof UpdateMsg) {
+                sendMulticast(channel, (UpdateMsg) pObject);
+            } else {
+                send(channel, new Message(null, pObject), pObject);
+            }
         } catch (final Exception pE) {
             throw new RuntimeException(pE);
         }
     }
 
+    /**
+     * Announce the regions around the local tanks to the other nodes if they changed; no-op without interest radius.
+     */
+    public void updateInterest() {
+        final int radiusPieces = _interestRadiusPieces;
+        if (radiusPieces <= 0 || _offline) {
+            return;
+        }
+        InterestRegions.fill(getWorld(), getWorld().getLocalTanks(), radiusPieces * getWorld().getTankW(), _interestRegions);
+        if (_interestAnnounceNeeded || !_interestRegions.equals(_announcedInterestRegions)) {
+            _interestAnnounceNeeded = false;
+            _announcedInterestRegions = (BitSet) _interestRegions.clone();
+            final InterestMsg interestMsg = new InterestMsg();
+            // without local tanks everything is of interest
+            interestMsg._regions = _announcedInterestRegions.isEmpty() ? null : _announcedInterestRegions;
+            networkSend(interestMsg);
+        }
+    }
+
+    /**
+     * Write everything a joining node needs; this is the payload of the JGroups state transfer.
+     */
+    public void writeState(final OutputStream pOutput) throws IOException {
+        // taken before the objects, so the objects are at least as new as the sequences claim
+        final Map<String, Long> sequences = new HashMap<>(_appliedSequences);
+        sequences.put(getOwnerAddress(), _sendSequence.get());
+        WorldSnapshotCodec.write(getWorld(), sequences, new HashMap<>(_nodeIds), _stateDeflated, pOutput);
+    }
+
+    /**
+     * @return node id of the member, assigned now if it has none yet; starts with a hash of the full address and probes for an
+     * id not used by another member.
+     */
+    private int assignNodeId(final Address pAddress) {
+        synchronized (_nodeIds) {
+            final String address = pAddress.toString();
+            final Integer existing = _nodeIds.get(address);
+            if (existing != null) {
+                return existing;
+            }
+            final int hash = pAddress instanceof UUID
+                    ? Long.hashCode(((UUID) pAddress).getMostSignificantBits() ^ ((UUID) pAddress).getLeastSignificantBits())
+                    : pAddress.hashCode();
+            int nodeId = EntityIds.toNodeId(hash);
+            while (_nodeIds.containsValue(nodeId)) {
+                nodeId = EntityIds.toNodeId(nodeId + 1);
+            }
+            putNodeIds(Collections.singletonMap(address, nodeId));
+            return nodeId;
+        }
+    }
+
+    /**
+     * Coordinator only: assign ids to new members and announce all ids, so a later coordinator knows them too.
+     *
+     * @param pNewCoordinator announce the ids even without new ones, as members may have missed the announcement of the previous
+     *                        coordinator.
+     */
+    private void assignNodeIds(final JChannel pChannel, final List<Address> pMembers, final boolean pNewCoordinator) {
+        final int nodeIdCount = _nodeIds.size();
+        for (final Address member : pMembers) {
+            assignNodeId(member);
+        }
+        // nobody else to tell in the first view, which arrives before the channel is connected
+        if ((pNewCoordinator || _nodeIds.size() != nodeIdCount) && pMembers.size() > 1) {
+            final NodeIdsMsg nodeIdsMsg = new NodeIdsMsg();
+            nodeIdsMsg._nodeIds.putAll(_nodeIds);
+            try {
+                send(pChannel, new Message(null, nodeIdsMsg), nodeIdsMsg);
+            } catch (final Exception pE) {
+                throw new RuntimeException(pE);
+            }
+        }
+    }
+
+    /**
+     * Wait until the coordinator assigned the id of this node; if it left before, the next coordinator assigns it.
+     */
+    private void awaitNodeId() throws InterruptedException {
+        final long deadlineMillis = System.currentTimeMillis() + NODE_ID_TIMEOUT_MILLIS;
+        synchronized (_nodeIds) {
+            while (_nodeId == 0) {
+                final long remainingMillis = deadlineMillis - System.currentTimeMillis();
+                if (remainingMillis <= 0L) {
+                    throw new IllegalStateException("No node id assigned");
+                }
+                _nodeIds.wait(remainingMillis);
+            }
+        }
+    }
+
+    private void applyRemovals(final UpdateMsg pUpdateMsg) {
+        for (final long bulletId : pUpdateMsg._removedBullets) {
+            getWorld().removeBullet(bulletId);
+        }
+    }
+
+    /**
+     * The obstacles of the map are owned by this node and reach joining nodes with the snapshot; all records are decoded here, so
+     * the map file is not needed afterwards.
+     */
+    private World createWorld(final MapFileCodec.MapFile pMapFile) {
+        final World world = new World(pMapFile.getPiecesX(), pMapFile.getPiecesY());
+        world.setRules(pMapFile.getRules());
+        final List<Obstacle> obstacles = new ArrayList<>(pMapFile.getObstacleCount());
+        for (int i = 0; i < pMapFile.getObstacleCount(); i++) {
+            obstacles.add(new Obstacle(getOwnerAddress(), pMapFile.getObstacleWidth(i), pMapFile.getObstacleHeight(i), nextId(),
+                    pMapFile.getObstacleCenterX(i), pMapFile.getObstacleCenterY(i), pMapFile.getObstacleRotation(i)
+            ));
+        }
+        world.addObstacles(obstacles);
+        return world;
+    }
+
+    private Message createUpdateMessage(final Address pDestination, final Object pPayload) {
+        final Message message = new Message(pDestination, pPayload);
+        // the sender applies its own updates directly
+        message.setTransientFlag(Message.TransientFlag.DONT_LOOPBACK);
+        return message;
+    }
+
     private JChannel getChannelNotNull() {
         final JChannel channel = _channel.get();
         if (channel == null) {
@@ -196,25 +582,147 @@ private JChannel getChannelNotNull() {
         return channel;
     }
 
-    private void networkReceive(final Object pReceived) {
-        if (pReceived instanceof UpdateMsg) {
-            final UpdateMsg dirty = (UpdateMsg) pReceived;
-            for (final TankState tankState : dirty._tanks) {
-                getWorld().apply(tankState);
+    /**
+     * Copy everything but the tank states.
+     */
+    private void copyWithoutTanks(final UpdateMsg pUpdateMsg, final UpdateMsg pTarget) {
+        pTarget.clear();
+        pTarget._sequence = pUpdateMsg._sequence;
+        // removals and damage are rare and must not get lost
+        pTarget._removedBullets.addAll(pUpdateMsg._removedBullets);
+        pTarget._removedTanks.addAll(pUpdateMsg._removedTanks);
+        pTarget._incrementDamage.addAll(pUpdateMsg._incrementDamage);
+    }
+
+    /**
+     * Copy the parts of the message relevant for a node interested in <code>pRegions</code> (<code>null</code> for the whole
+     * world): the current states of the updated tanks within the regions and of the tanks entering or leaving them, or with
+     * <code>pAllTanks</code> of all local tanks.
+     *
+     * @param pVisibleTanks ids of the tanks within the regions as of the last call, updated.
+     */
+    private void filter(final UpdateMsg pUpdateMsg, final BitSet pRegions, final boolean pAllTanks, final Set<Long> pVisibleTanks,
+                        final UpdateMsg pTarget) {
+        copyWithoutTanks(pUpdateMsg, pTarget);
+        pVisibleTanks.removeAll(pUpdateMsg._removedTanks);
+        final World world = getWorld();
+        for (final Tank tank : world.getLocalTanks()) {
+            final TankState tankState = tank.getState();
+            final boolean visible = pRegions == null || InterestRegions.contains(world, pRegions, tankState._centerX, tankState._centerY);
+            final boolean visibilityChanged = visible ? pVisibleTanks.add(tankState._id) : pVisibleTanks.remove(tankState._id);
+            if (pAllTanks || visibilityChanged || visible && _updatedTankIds.contains(tankState._id)) {
+                pTarget._tanks.add(tankState);
+            }
+        }
+    }
+
+    private String getOwnerAddress() {
+        return _offline ? OFFLINE_ADDRESS : getChannelNotNull().getAddressAsString();
+    }
+
+    private long nextId() {
+        final int nodeId = _offline ? OFFLINE_NODE_ID : _nodeId;
+        if (nodeId == EntityIds.NO_NODE) {
+            // reserved for the obstacles generated from the map seed
+            throw new IllegalStateException("No node id assigned");
+        }
+        return EntityIds.create(nodeId, _idCounter.incrementAndGet());
+    }
+
+    private void putNodeIds(final Map<String, Integer> pNodeIds) {
+        synchronized (_nodeIds) {
+            _nodeIds.putAll(pNodeIds);
+            final JChannel channel = _channel.get();
+            final Integer nodeId = channel == null ? null : _nodeIds.get(channel.getAddressAsString());
+            if (nodeId != null) {
+                _nodeId = nodeId;
+                _nodeIds.notifyAll();
+            }
+        }
+    }
+
+    private void send(final JChannel pChannel, final Message pMessage, final Object pObject) throws Exception {
+        pChannel.send(pMessage);
+        _metrics.sent(pObject, pMessage.getLength());
+    }
+
+    private void sendMulticast(final JChannel pChannel, final UpdateMsg pUpdateMsg) throws Exception {
+        UpdateMsg updateMsg = pUpdateMsg;
+        if (_routed) {
+            // receivers have baselines from the unicasts
+            _routed = false;
+            _unicastCodecs.clear();
+            _visibleTanks.clear();
+            _updateMsgCodec.resetBaselines();
+            // tanks may have been outside the regions of some receivers
+            copyWithoutTanks(pUpdateMsg, _filteredUpdateMsg);
+            for (final Tank tank : getWorld().getLocalTanks()) {
+                _filteredUpdateMsg._tanks.add(tank.getState());
             }
-            for (final BulletState bulletState : dirty._bullets) {
-                getWorld().apply(bulletState);
+            updateMsg = _filteredUpdateMsg;
+        }
+        _interestsChanged = false;
+        if (!updateMsg.isEmpty()) {
+            if (_wireFormat == WireFormat.BINARY) {
+                for (final byte[] encoded : _updateMsgCodec.encode(updateMsg, _maxUpdateMsgBytes)) {
+                    send(pChannel, createUpdateMessage(null, encoded), updateMsg);
+                }
+            } else {
+                send(pChannel, createUpdateMessage(null, updateMsg), updateMsg);
             }
-            for (final String bulletUuid : dirty._removedBullets) {
-                getWorld().removeBullet(bulletUuid);
+        }
+        _filteredUpdateMsg.clear();
+    }
+
+    /**
+     * Unicast to every other node only the states within its announced regions; each destination has its own codec, as the
+     * baselines differ.
+     */
+    private void sendRouted(final JChannel pChannel, final UpdateMsg pUpdateMsg) throws Exception {
+        _routed = true;
+        _interestsChanged = false;
+        final boolean allTanks = pUpdateMsg._sequence % FAR_TANKS_SEND_INTERVAL == 0;
+        _updatedTankIds.clear();
+        for (final TankState tankState : pUpdateMsg._tanks) {
+            _updatedTankIds.add(tankState._id);
+        }
+        final Address self = pChannel.getAddress();
+        for (final Address member : pChannel.getView().getMembers()) {
+            if (member.equals(self)) {
+                continue;
             }
-            for (final String tankUuid : dirty._incrementDamage) {
-                getWorld().getLocalTank(tankUuid).ifPresent(LocalTank::incrementDamageIncrement);
+            final String memberString = member.toString();
+            final Set<Long> visibleTanks = _visibleTanks.computeIfAbsent(memberString, pMember -> new HashSet<>());
+            filter(pUpdateMsg, _interests.get(memberString), allTanks, visibleTanks, _filteredUpdateMsg);
+            final UpdateMsg updateMsg = _filteredUpdateMsg;
+            if (updateMsg.isEmpty()) {
+                continue;
+            }
+            if (_wireFormat == WireFormat.BINARY) {
+                final UpdateMsgCodec codec = _unicastCodecs.computeIfAbsent(memberString, pMember -> new UpdateMsgCodec());
+                for (final byte[] encoded : codec.encode(updateMsg, _maxUpdateMsgBytes)) {
+                    send(pChannel, createUpdateMessage(member, encoded), updateMsg);
+                }
+            } else {
+                send(pChannel, createUpdateMessage(member, updateMsg), updateMsg);
             }
         }
-        if (pReceived instanceof Obstacle) {
-            final Obstacle obstacle = (Obstacle) pReceived;
-            getWorld().addObstacle(obstacle);
+        _filteredUpdateMsg.clear();
+    }
+
+    private void networkReceive(final String pSender, final Object pReceived) {
+        final long startNanos = _metrics.getApplyLatency().start();
+        if (pReceived instanceof UpdateMsg) {
+            final UpdateMsg dirty = (UpdateMsg) pReceived;
+            final long timeMillis = TimeUtils.millis();
+            for (final TankState tankState : dirty._tanks) {
+                getWorld().applyReceived(tankState, timeMillis);
+            }
+            applyRemovals(dirty);
+            for (final long tankId : dirty._incrementDamage) {
+                getWorld().getLocalTank(tankId).ifPresent(LocalTank::incrementDamageIncrement);
+            }
+            _appliedSequences.merge(pSender, dirty._sequence, Math::max);
         }
         if (pReceived instanceof Tank) {
             final Tank tank = (Tank) pReceived;
@@ -222,12 +730,50 @@ private void networkReceive(final Object pReceived) {
         }
         if (pReceived instanceof Bullet) {
             final Bullet bullet = (Bullet) pReceived;
-            getWorld().addBullet(bullet);
+            if (bullet.getOwnerAddress().equals(getOwnerAddress())) {
+                // the owner simulates the whole path, as it decides the hits
+                getWorld().addBullet(bullet);
+            } else {
+                getWorld().addBullet(bullet, TimeUtils.millis() - bullet.getSpawnMillis());
+            }
+        }
+        if (pReceived instanceof InterestMsg && !pSender.equals(getOwnerAddress())) {
+            final InterestMsg interestMsg = (InterestMsg) pReceived;
+            if (interestMsg._regions == null) {
+                _interests.remove(pSender);
+            } else {
+                _interests.put(pSender, interestMsg._regions);
+            }
+            _interestsChanged = true;
         }
         if (pReceived instanceof Rules) {
             final Rules rules = (Rules) pReceived;
             getWorld().setRules(rules);
         }
+        if (pReceived == MEMBER_LEFT) {
+            final Predicate<AbstractGameObject<?>> senderPredicate = pObject -> pObject.getOwnerAddress().equals(pSender);
+            getWorld().removeTanks(senderPredicate);
+            getWorld().removeBullets(pSender);
+            _appliedSequences.remove(pSender);
+            _interests.remove(pSender);
+            _unicastCodecs.remove(pSender);
+            _visibleTanks.remove(pSender);
+        }
+        _metrics.getApplyLatency().stop(startNanos);
+    }
+
+    private static final class Received {
+
+        private final String _sender;
+        private final Object _object;
+
+        private Received(final String pSender, final Object pObject) {
+            super();
+
+            _sender = pSender;
+            _object = pObject;
+        }
+
     }
 
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+/**
+ * Entity ids are longs packing the id of the creating node (upper bits) and a counter local to that node (lower bits).
+ */
+public final class EntityIds {
+
+    public static final int NODE_BITS = 24;
+    public static final int COUNTER_BITS = 32;
+
+    /**
+     * Node id reserved for entities not created by a network node.
+     */
+    public static final int NO_NODE = 0;
+
+    private static final int NODE_MASK = (1 << NODE_BITS) - 1;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private EntityIds() {
+        super();
+    }
+
+    public static long create(final int pNodeId, final long pCounter) {
+        return ((long) (pNodeId & NODE_MASK) << COUNTER_BITS) | (pCounter & COUNTER_MASK);
+    }
+
+    public static long getCounter(final long pId) {
+        return pId & COUNTER_MASK;
+    }
+
+    public static int getNodeId(final long pId) {
+        return (int) (pId >>> COUNTER_BITS) & NODE_MASK;
+    }
+
+    /**
+     * Derive a node id from an arbitrary hash, never returning {@link #NO_NODE}.
+     */
+    public static int toNodeId(final int pHash) {
+        final int nodeId = (pHash ^ (pHash >>> NODE_BITS)) & NODE_MASK;
+        return nodeId == NO_NODE ? 1 : nodeId;
+    }
+
+    /**
+     * @return readable form for logging only.
+     */
+    public static String toString(final long pId) {
+        return Integer.toHexString(getNodeId(pId)) + ":" + getCounter(pId);
+    }
+
+}
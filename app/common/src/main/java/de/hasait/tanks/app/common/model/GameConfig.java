@@ -16,6 +16,8 @@
 
 package de.hasait.tanks.app.common.model;
 
+import de.hasait.tanks.app.common.msg.WireFormat;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -31,7 +33,48 @@ public class GameConfig implements Serializable {
     private final Map<String, String> _networkSystemProperties = new HashMap<>();
     private String _roomName;
     private int _wishPiecesX, _wishPiecesY;
+    /**
+     * Map the world is created from if this node creates the room; null for an empty world of the wished size.
+     */
+    private String _mapFile;
+    /**
+     * Visible part of the world, following the local tanks if smaller than the world; 0 for the whole world.
+     */
+    private int _viewPiecesX, _viewPiecesY;
     private String _networkStack;
+    private WireFormat _wireFormat = WireFormat.BINARY;
+    private int _maxUpdateMsgBytes = DistributedWorld.DEFAULT_MAX_UPDATE_MSG_BYTES;
+    private int _tickHz = 60;
+    private int _sendHz = 30;
+    private int _interestRadiusPieces;
+    /**
+     * Sent to the room if this node creates it.
+     */
+    private final Rules _rules = new Rules();
+
+    public int getInterestRadiusPieces() {
+        return _interestRadiusPieces;
+    }
+
+    public void setInterestRadiusPieces(final int pInterestRadiusPieces) {
+        _interestRadiusPieces = pInterestRadiusPieces;
+    }
+
+    public String getMapFile() {
+        return _mapFile;
+    }
+
+    public void setMapFile(final String pMapFile) {
+        _mapFile = pMapFile;
+    }
+
+    public int getMaxUpdateMsgBytes() {
+        return _maxUpdateMsgBytes;
+    }
+
+    public void setMaxUpdateMsgBytes(final int pMaxUpdateMsgBytes) {
+        _maxUpdateMsgBytes = pMaxUpdateMsgBytes;
+    }
 
     public String getNetworkStack() {
         return _networkStack;
@@ -49,6 +92,10 @@ public List<PlayerConfig> getPlayers() {
         return _players;
     }
 
+    public Rules getRules() {
+        return _rules;
+    }
+
     public String getRoomName() {
         return _roomName;
     }
@@ -57,6 +104,38 @@ public void setRoomName(final String pRoomName) {
         _roomName = pRoomName;
     }
 
+    public int getSendHz() {
+        return _sendHz;
+    }
+
+    public void setSendHz(final int pSendHz) {
+        _sendHz = pSendHz;
+    }
+
+    public int getTickHz() {
+        return _tickHz;
+    }
+
+    public void setTickHz(final int pTickHz) {
+        _tickHz = pTickHz;
+    }
+
+    public int getViewPiecesX() {
+        return _viewPiecesX;
+    }
+
+    public void setViewPiecesX(final int pViewPiecesX) {
+        _viewPiecesX = pViewPiecesX;
+    }
+
+    public int getViewPiecesY() {
+        return _viewPiecesY;
+    }
+
+    public void setViewPiecesY(final int pViewPiecesY) {
+        _viewPiecesY = pViewPiecesY;
+    }
+
     public int getWishPiecesX() {
         return _wishPiecesX;
     }
@@ -73,6 +152,14 @@ public void setWishPiecesY(final int pWishPiecesY) {
         _wishPiecesY = pWishPiecesY;
     }
 
+    public WireFormat getWireFormat() {
+        return _wireFormat;
+    }
+
+    public void setWireFormat(final WireFormat pWireFormat) {
+        _wireFormat = pWireFormat;
+    }
+
     public void putNetworkSystemProperty(final String pKey, final String pValue) {
         _networkSystemProperties.put(pKey, pValue);
     }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import java.util.BitSet;
+
+/**
+ * Partition of the world into square regions of {@value #REGION_PIECES} pieces, used to replicate states only to nodes with
+ * tanks nearby.
+ */
+public final class InterestRegions {
+
+    public static final int REGION_PIECES = 8;
+
+    private InterestRegions() {
+        super();
+    }
+
+    /**
+     * Set the regions within <code>pRadius</code> of the tanks.
+     */
+    public static void fill(final World pWorld, final Iterable<Tank> pTanks, final float pRadius, final BitSet pRegions) {
+        pRegions.clear();
+        final int regionsX = getRegionsX(pWorld);
+        for (final Tank tank : pTanks) {
+            final TankState state = tank.getState();
+            final int minRX = regionX(pWorld, state._centerX - pRadius);
+            final int maxRX = regionX(pWorld, state._centerX + pRadius);
+            final int minRY = regionY(pWorld, state._centerY - pRadius);
+            final int maxRY = regionY(pWorld, state._centerY + pRadius);
+            for (int ry = minRY; ry <= maxRY; ry++) {
+                pRegions.set(ry * regionsX + minRX, ry * regionsX + maxRX + 1);
+            }
+        }
+    }
+
+    public static boolean contains(final World pWorld, final BitSet pRegions, final float pX, final float pY) {
+        return pRegions.get(regionY(pWorld, pY) * getRegionsX(pWorld) + regionX(pWorld, pX));
+    }
+
+    private static int getRegionsX(final World pWorld) {
+        return (pWorld.getPiecesX() + REGION_PIECES - 1) / REGION_PIECES;
+    }
+
+    private static int getRegionsY(final World pWorld) {
+        return (pWorld.getPiecesY() + REGION_PIECES - 1) / REGION_PIECES;
+    }
+
+    private static int regionX(final World pWorld, final float pX) {
+        return Math.min(getRegionsX(pWorld) - 1, Math.max(0, (int) (pX / (REGION_PIECES * pWorld.getTankW()))));
+    }
+
+    private static int regionY(final World pWorld, final float pY) {
+        return Math.min(getRegionsY(pWorld) - 1, Math.max(0, (int) (pY / (REGION_PIECES * pWorld.getTankH()))));
+    }
+
+}
@@ -23,15 +23,15 @@
  */
 public class LocalTank {
 
-    private final String _tankUuid;
+    private final long _tankId;
     private final PlayerConfig _playerConfig;
     private final AtomicInteger _tankDamageIncrement = new AtomicInteger();
     private long _lastShotTimeMillis;
 
-    public LocalTank(final String pTankUuid, final PlayerConfig pPlayerConfig) {
+    public LocalTank(final long pTankId, final PlayerConfig pPlayerConfig) {
         super();
 
-        _tankUuid = pTankUuid;
+        _tankId = pTankId;
         _playerConfig = pPlayerConfig;
     }
 
@@ -51,8 +51,8 @@ public PlayerConfig getPlayerConfig() {
         return _playerConfig;
     }
 
-    public String getTankUuid() {
-        return _tankUuid;
+    public long getTankId() {
+        return _tankId;
     }
 
     public void incrementDamageIncrement() {
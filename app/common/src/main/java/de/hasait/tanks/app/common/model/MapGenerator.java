@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the obstacles of a map from a seed, so every node creates identical obstacles locally instead of receiving them.
+ */
+public final class MapGenerator {
+
+    /**
+     * Owner of generated obstacles, which belong to no node.
+     */
+    public static final String OWNER_ADDRESS = "map";
+
+    private MapGenerator() {
+        super();
+    }
+
+    /**
+     * @return obstacles for the world size and seed; ids are created for {@link EntityIds#NO_NODE}.
+     */
+    public static List<Obstacle> generate(final World pWorld, final long pSeed, final int pCount) {
+        // own generator, the shared MathUtils.random would make the result depend on other callers
+        final Random random = new Random(pSeed ^ ((long) pWorld.getPiecesX() << 32 | pWorld.getPiecesY()));
+        final List<Obstacle> obstacles = new ArrayList<>(pCount);
+        for (int i = 0; i < pCount; i++) {
+            final int width = (int) (pWorld.getObstacleW() * (1.0f + 2.0f * random.nextFloat()));
+            final int height = (int) (pWorld.getObstacleH() * (1.0f + 2.0f * random.nextFloat()));
+            final float centerX = pWorld.getWorldW() * random.nextFloat();
+            final float centerY = pWorld.getWorldH() * random.nextFloat();
+            final float rotation = 360.0f * random.nextFloat();
+            obstacles.add(new Obstacle(OWNER_ADDRESS, width, height, EntityIds.create(EntityIds.NO_NODE, i + 1), centerX, centerY, rotation));
+        }
+        return obstacles;
+    }
+
+    public static boolean isGenerated(final AbstractGameObject<?> pObject) {
+        return EntityIds.getNodeId(pObject.getId()) == EntityIds.NO_NODE;
+    }
+
+}
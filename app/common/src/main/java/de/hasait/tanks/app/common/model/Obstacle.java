@@ -17,7 +17,6 @@
 package de.hasait.tanks.app.common.model;
 
 import java.io.ObjectStreamException;
-import java.util.UUID;
 
 /**
  *
@@ -30,13 +29,13 @@ public Obstacle(final String pOwnerAddress, final int pWidth, final int pHeight,
         apply(pState);
     }
 
-    public Obstacle(final String pOwnerAddress, final int pWidth, final int pHeight, final float pCenterX, final float pCenterY, final float pRotation) {
-        this(pOwnerAddress, pWidth, pHeight, createState(pCenterX, pCenterY, pRotation));
+    public Obstacle(final String pOwnerAddress, final int pWidth, final int pHeight, final long pId, final float pCenterX, final float pCenterY, final float pRotation) {
+        this(pOwnerAddress, pWidth, pHeight, createState(pId, pCenterX, pCenterY, pRotation));
     }
 
-    private static ObstacleState createState(final float pCenterX, final float pCenterY, final float pRotation) {
+    private static ObstacleState createState(final long pId, final float pCenterX, final float pCenterY, final float pRotation) {
         final ObstacleState state = new ObstacleState();
-        state._uuid = UUID.randomUUID().toString();
+        state._id = pId;
         state._centerX = pCenterX;
         state._centerY = pCenterY;
         state._rotation = pRotation;
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable snapshot of all obstacles for collision tests: precomputed oriented boxes and bounding rectangles in flat arrays,
+ * indexed by a uniform grid in compressed form (per cell a range in one index array). Built once per change of the obstacles,
+ * as obstacles never move.
+ */
+public final class ObstacleGeometry {
+
+    private final int _version;
+    private final Obstacle[] _obstacles;
+    private final OrientedBox[] _bounds;
+    private final float[] _minX, _minY, _maxX, _maxY;
+    /**
+     * First grid cell of each obstacle, to report obstacles spanning several cells only once.
+     */
+    private final int[] _minCX, _minCY;
+
+    private final int _cellsX, _cellsY;
+    private final float _cellW, _cellH;
+    /**
+     * Obstacles of cell <code>c</code> are <code>_cellObstacles[_cellStart[c]]</code> to <code>_cellObstacles[_cellStart[c + 1] - 1]</code>.
+     */
+    private final int[] _cellStart;
+    private final int[] _cellObstacles;
+
+    public ObstacleGeometry(final int pVersion, final Collection<Obstacle> pObstacles, final int pCellsX, final int pCellsY,
+                            final float pCellW, final float pCellH) {
+        super();
+
+        _version = pVersion;
+        _cellsX = pCellsX;
+        _cellsY = pCellsY;
+        _cellW = pCellW;
+        _cellH = pCellH;
+
+        _obstacles = pObstacles.toArray(new Obstacle[0]);
+        final int count = _obstacles.length;
+        _bounds = new OrientedBox[count];
+        _minX = new float[count];
+        _minY = new float[count];
+        _maxX = new float[count];
+        _maxY = new float[count];
+        _minCX = new int[count];
+        _minCY = new int[count];
+        final int[] maxCX = new int[count];
+        final int[] maxCY = new int[count];
+        _cellStart = new int[_cellsX * _cellsY + 1];
+        for (int i = 0; i < count; i++) {
+            final OrientedBox bounds = new OrientedBox();
+            bounds.set(_obstacles[i].getBounds());
+            _bounds[i] = bounds;
+            _minX[i] = bounds.getMinX();
+            _minY[i] = bounds.getMinY();
+            _maxX[i] = bounds.getMaxX();
+            _maxY[i] = bounds.getMaxY();
+            _minCX[i] = cellX(_minX[i]);
+            _minCY[i] = cellY(_minY[i]);
+            maxCX[i] = cellX(_maxX[i]);
+            maxCY[i] = cellY(_maxY[i]);
+            for (int cy = _minCY[i]; cy <= maxCY[i]; cy++) {
+                for (int cx = _minCX[i]; cx <= maxCX[i]; cx++) {
+                    _cellStart[cy * _cellsX + cx + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < _cellsX * _cellsY; c++) {
+            _cellStart[c + 1] += _cellStart[c];
+        }
+        _cellObstacles = new int[_cellStart[_cellsX * _cellsY]];
+        final int[] fill = new int[_cellsX * _cellsY];
+        for (int i = 0; i < count; i++) {
+            for (int cy = _minCY[i]; cy <= maxCY[i]; cy++) {
+                for (int cx = _minCX[i]; cx <= maxCX[i]; cx++) {
+                    final int cell = cy * _cellsX + cx;
+                    _cellObstacles[_cellStart[cell] + fill[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if any obstacle contains the point.
+     */
+    public boolean contains(final float pX, final float pY) {
+        final int cell = cellY(pY) * _cellsX + cellX(pX);
+        for (int j = _cellStart[cell]; j < _cellStart[cell + 1]; j++) {
+            final int i = _cellObstacles[j];
+            if (pX >= _minX[i] && pX <= _maxX[i] && pY >= _minY[i] && pY <= _maxY[i] && _bounds[i].contains(pX, pY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Call each obstacle whose bounding rectangle overlaps the given rectangle.
+     */
+    public void forEach(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final Consumer<? super Obstacle> pConsumer) {
+        final int minCX = cellX(pMinX);
+        final int minCY = cellY(pMinY);
+        final int maxCX = cellX(pMaxX);
+        final int maxCY = cellY(pMaxY);
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                final int cell = cy * _cellsX + cx;
+                for (int j = _cellStart[cell]; j < _cellStart[cell + 1]; j++) {
+                    final int i = _cellObstacles[j];
+                    if (isFirstSharedCell(i, minCX, minCY, cx, cy) && overlaps(i, pMinX, pMinY, pMaxX, pMaxY)) {
+                        pConsumer.accept(_obstacles[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    public Obstacle getObstacle(final int pIndex) {
+        return _obstacles[pIndex];
+    }
+
+    public int getVersion() {
+        return _version;
+    }
+
+    /**
+     * @return distance of the centers if the obstacle intersects the box; otherwise a negative value.
+     */
+    public float intersects(final int pIndex, final OrientedBox pOtherBounds) {
+        if (pOtherBounds.getMaxX() < _minX[pIndex] || pOtherBounds.getMinX() > _maxX[pIndex] || pOtherBounds.getMaxY() < _minY[pIndex]
+                || pOtherBounds.getMinY() > _maxY[pIndex] || !_bounds[pIndex].intersects(pOtherBounds)) {
+            return -1.0f;
+        }
+        final float dx = pOtherBounds.getCenterX() - _bounds[pIndex].getCenterX();
+        final float dy = pOtherBounds.getCenterY() - _bounds[pIndex].getCenterY();
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Call the index of each obstacle whose bounding rectangle overlaps the given rectangle.
+     */
+    public void query(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final IntConsumer pConsumer) {
+        final int minCX = cellX(pMinX);
+        final int minCY = cellY(pMinY);
+        final int maxCX = cellX(pMaxX);
+        final int maxCY = cellY(pMaxY);
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                final int cell = cy * _cellsX + cx;
+                for (int j = _cellStart[cell]; j < _cellStart[cell + 1]; j++) {
+                    final int i = _cellObstacles[j];
+                    if (isFirstSharedCell(i, minCX, minCY, cx, cy) && overlaps(i, pMinX, pMinY, pMaxX, pMaxY)) {
+                        pConsumer.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return fraction between 0 and 1 of the segment where it first enters an obstacle; a negative value if it misses all.
+     */
+    public float intersectSegment(final float pX0, final float pY0, final float pX1, final float pY1) {
+        final float minX = Math.min(pX0, pX1);
+        final float minY = Math.min(pY0, pY1);
+        final float maxX = Math.max(pX0, pX1);
+        final float maxY = Math.max(pY0, pY1);
+        final int minCX = cellX(minX);
+        final int minCY = cellY(minY);
+        final int maxCX = cellX(maxX);
+        final int maxCY = cellY(maxY);
+        float first = -1.0f;
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                final int cell = cy * _cellsX + cx;
+                for (int j = _cellStart[cell]; j < _cellStart[cell + 1]; j++) {
+                    final int i = _cellObstacles[j];
+                    // obstacles spanning several cells are tested more than once, which does not change the minimum
+                    if (overlaps(i, minX, minY, maxX, maxY)) {
+                        final float enter = _bounds[i].intersectSegment(pX0, pY0, pX1, pY1);
+                        if (enter >= 0.0f && (first < 0.0f || enter < first)) {
+                            first = enter;
+                        }
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    public int size() {
+        return _obstacles.length;
+    }
+
+    private int cellX(final float pX) {
+        return Math.min(_cellsX - 1, Math.max(0, (int) (pX / _cellW)));
+    }
+
+    private int cellY(final float pY) {
+        return Math.min(_cellsY - 1, Math.max(0, (int) (pY / _cellH)));
+    }
+
+    private boolean isFirstSharedCell(final int pIndex, final int pMinCX, final int pMinCY, final int pCX, final int pCY) {
+        return Math.max(_minCX[pIndex], pMinCX) == pCX && Math.max(_minCY[pIndex], pMinCY) == pCY;
+    }
+
+    private boolean overlaps(final int pIndex, final float pMinX, final float pMinY, final float pMaxX, final float pMaxY) {
+        return pMaxX >= _minX[pIndex] && pMinX <= _maxX[pIndex] && pMaxY >= _minY[pIndex] && pMinY <= _maxY[pIndex];
+    }
+
+}
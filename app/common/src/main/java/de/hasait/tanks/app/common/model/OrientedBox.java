@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Rectangle rotated around its center with precomputed axes; intersection is a separating axis test over primitive floats.
+ * <p>
+ * Instances are mutable and meant to be reused, so collision checks do not allocate.
+ */
+public final class OrientedBox {
+
+    private float _centerX, _centerY;
+    private float _halfW, _halfH;
+    /**
+     * Local x axis is (cos, sin), local y axis is (-sin, cos).
+     */
+    private float _cos, _sin;
+    private float _extentX, _extentY;
+    private float _radius;
+
+    public OrientedBox() {
+        super();
+
+        _cos = 1.0f;
+    }
+
+    /**
+     * @return true if the point is inside or on the border.
+     */
+    public boolean contains(final float pX, final float pY) {
+        final float dx = pX - _centerX;
+        final float dy = pY - _centerY;
+        return Math.abs(dx * _cos + dy * _sin) <= _halfW && Math.abs(dy * _cos - dx * _sin) <= _halfH;
+    }
+
+    public float getCenterX() {
+        return _centerX;
+    }
+
+    public float getCenterY() {
+        return _centerY;
+    }
+
+    public float getMaxX() {
+        return _centerX + _extentX;
+    }
+
+    public float getMaxY() {
+        return _centerY + _extentY;
+    }
+
+    public float getMinX() {
+        return _centerX - _extentX;
+    }
+
+    public float getMinY() {
+        return _centerY - _extentY;
+    }
+
+    /**
+     * @return radius of the circumscribed circle.
+     */
+    public float getRadius() {
+        return _radius;
+    }
+
+    public boolean intersects(final OrientedBox pOther) {
+        final float dx = pOther._centerX - _centerX;
+        final float dy = pOther._centerY - _centerY;
+        final float radii = _radius + pOther._radius;
+        if (dx * dx + dy * dy > radii * radii) {
+            return false;
+        }
+        return !separates(pOther, dx, dy, _cos, _sin)
+                && !separates(pOther, dx, dy, -_sin, _cos)
+                && !separates(pOther, dx, dy, pOther._cos, pOther._sin)
+                && !separates(pOther, dx, dy, -pOther._sin, pOther._cos);
+    }
+
+    /**
+     * Slab test in the local frame of the box.
+     *
+     * @return fraction between 0 and 1 of the segment from <code>(pX0, pY0)</code> to <code>(pX1, pY1)</code> where it enters the
+     * box, 0 if it starts inside; a negative value if it misses.
+     */
+    public float intersectSegment(final float pX0, final float pY0, final float pX1, final float pY1) {
+        final float dx0 = pX0 - _centerX;
+        final float dy0 = pY0 - _centerY;
+        final float dx = pX1 - pX0;
+        final float dy = pY1 - pY0;
+        final float localX0 = dx0 * _cos + dy0 * _sin;
+        final float localY0 = dy0 * _cos - dx0 * _sin;
+        final float localDX = dx * _cos + dy * _sin;
+        final float localDY = dy * _cos - dx * _sin;
+        final float enterX = slabEnter(localX0, localDX, _halfW);
+        final float exitX = slabExit(localX0, localDX, _halfW);
+        final float enterY = slabEnter(localY0, localDY, _halfH);
+        final float exitY = slabExit(localY0, localDY, _halfH);
+        final float enter = Math.max(0.0f, Math.max(enterX, enterY));
+        final float exit = Math.min(1.0f, Math.min(exitX, exitY));
+        return enter <= exit ? enter : -1.0f;
+    }
+
+    /**
+     * @param pRotation counterclockwise in degrees.
+     */
+    public void set(final float pCenterX, final float pCenterY, final float pWidth, final float pHeight, final float pRotation) {
+        _centerX = pCenterX;
+        _centerY = pCenterY;
+        _halfW = pWidth / 2.0f;
+        _halfH = pHeight / 2.0f;
+        _cos = MathUtils.cosDeg(pRotation);
+        _sin = MathUtils.sinDeg(pRotation);
+        final float absCos = Math.abs(_cos);
+        final float absSin = Math.abs(_sin);
+        _extentX = _halfW * absCos + _halfH * absSin;
+        _extentY = _halfW * absSin + _halfH * absCos;
+        _radius = (float) Math.sqrt(_halfW * _halfW + _halfH * _halfH);
+    }
+
+    public void set(final OrientedBox pOther) {
+        _centerX = pOther._centerX;
+        _centerY = pOther._centerY;
+        _halfW = pOther._halfW;
+        _halfH = pOther._halfH;
+        _cos = pOther._cos;
+        _sin = pOther._sin;
+        _extentX = pOther._extentX;
+        _extentY = pOther._extentY;
+        _radius = pOther._radius;
+    }
+
+    private static float slabEnter(final float pStart, final float pDelta, final float pHalf) {
+        if (pDelta == 0.0f) {
+            return Math.abs(pStart) <= pHalf ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        }
+        return Math.min((-pHalf - pStart) / pDelta, (pHalf - pStart) / pDelta);
+    }
+
+    private static float slabExit(final float pStart, final float pDelta, final float pHalf) {
+        if (pDelta == 0.0f) {
+            return Math.abs(pStart) <= pHalf ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+        }
+        return Math.max((-pHalf - pStart) / pDelta, (pHalf - pStart) / pDelta);
+    }
+
+    private float projectedHalfSize(final float pAxisX, final float pAxisY) {
+        return _halfW * Math.abs(pAxisX * _cos + pAxisY * _sin) + _halfH * Math.abs(pAxisY * _cos - pAxisX * _sin);
+    }
+
+    private boolean separates(final OrientedBox pOther, final float pDX, final float pDY, final float pAxisX, final float pAxisY) {
+        final float distance = Math.abs(pDX * pAxisX + pDY * pAxisY);
+        return distance > projectedHalfSize(pAxisX, pAxisY) + pOther.projectedHalfSize(pAxisX, pAxisY);
+    }
+
+}
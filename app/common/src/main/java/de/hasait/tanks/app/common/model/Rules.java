@@ -29,4 +29,24 @@ public class Rules implements Serializable {
     public long _respawnTimeMillis = TimeUnit.SECONDS.toMillis(10);
     public long _timeMillisBetweenShots = 1000;
 
+    /**
+     * Every node generates this many obstacles from the seed, see {@link MapGenerator}; they are never sent.
+     */
+    public long _mapSeed;
+    public int _mapObstacles;
+
+    /**
+     * Replication of tank states: at most this many states per tank and second, 0 for every send.
+     */
+    public int _maxTankSendHz;
+    /**
+     * Position and rotation changes up to these since the last sent state are not sent...
+     */
+    public float _positionEpsilon;
+    public float _rotationEpsilon;
+    /**
+     * ...unless the last sent state is older than this.
+     */
+    public long _keyframeIntervalMillis = 1000;
+
 }
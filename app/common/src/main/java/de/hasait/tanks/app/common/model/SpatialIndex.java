@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid over the world pieces; every object is registered in all cells overlapped by its bounding rectangle.
+ */
+public class SpatialIndex<O extends AbstractGameObject<?>> {
+
+    private final int _cellsX, _cellsY;
+    private final float _cellW, _cellH;
+
+    private final List<Set<O>> _cells;
+    private final Map<O, CellRange> _ranges = new ConcurrentHashMap<>();
+
+    public SpatialIndex(final int pCellsX, final int pCellsY, final float pCellW, final float pCellH) {
+        super();
+
+        _cellsX = pCellsX;
+        _cellsY = pCellsY;
+        _cellW = pCellW;
+        _cellH = pCellH;
+
+        _cells = new ArrayList<>(_cellsX * _cellsY);
+        for (int i = 0; i < _cellsX * _cellsY; i++) {
+            _cells.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Call each object whose cells overlap the given rectangle exactly once.
+     */
+    public void query(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final Consumer<? super O> pConsumer) {
+        final int minCX = cellX(pMinX);
+        final int minCY = cellY(pMinY);
+        final int maxCX = cellX(pMaxX);
+        final int maxCY = cellY(pMaxY);
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                for (final O object : _cells.get(cy * _cellsX + cx)) {
+                    final CellRange range = _ranges.get(object);
+                    // report only in the first cell shared by query and object to avoid duplicates
+                    if (range != null && Math.max(range._minCX, minCX) == cx && Math.max(range._minCY, minCY) == cy) {
+                        pConsumer.accept(object);
+                    }
+                }
+            }
+        }
+    }
+
+    public void query(final float pX, final float pY, final Consumer<? super O> pConsumer) {
+        query(pX, pY, pX, pY, pConsumer);
+    }
+
+    public void query(final OrientedBox pBounds, final Consumer<? super O> pConsumer) {
+        query(pBounds.getMinX(), pBounds.getMinY(), pBounds.getMaxX(), pBounds.getMaxY(), pConsumer);
+    }
+
+    public void remove(final O pObject) {
+        final CellRange oldRange = _ranges.remove(pObject);
+        if (oldRange != null) {
+            forEachCell(oldRange, pCell -> pCell.remove(pObject));
+        }
+    }
+
+    public void update(final O pObject) {
+        final OrientedBox bounds = pObject.getBounds();
+        final int minCX = cellX(bounds.getMinX());
+        final int minCY = cellY(bounds.getMinY());
+        final int maxCX = cellX(bounds.getMaxX());
+        final int maxCY = cellY(bounds.getMaxY());
+        final CellRange currentRange = _ranges.get(pObject);
+        if (currentRange != null && currentRange.is(minCX, minCY, maxCX, maxCY)) {
+            // most moves stay within the same cells
+            return;
+        }
+        final CellRange newRange = new CellRange(minCX, minCY, maxCX, maxCY);
+        final CellRange oldRange = _ranges.put(pObject, newRange);
+        if (oldRange != null) {
+            forEachCell(oldRange, pCell -> pCell.remove(pObject));
+        }
+        forEachCell(newRange, pCell -> pCell.add(pObject));
+    }
+
+    private int cellX(final float pX) {
+        return Math.min(_cellsX - 1, Math.max(0, (int) (pX / _cellW)));
+    }
+
+    private int cellY(final float pY) {
+        return Math.min(_cellsY - 1, Math.max(0, (int) (pY / _cellH)));
+    }
+
+    private void forEachCell(final CellRange pRange, final Consumer<Set<O>> pConsumer) {
+        for (int cy = pRange._minCY; cy <= pRange._maxCY; cy++) {
+            for (int cx = pRange._minCX; cx <= pRange._maxCX; cx++) {
+                pConsumer.accept(_cells.get(cy * _cellsX + cx));
+            }
+        }
+    }
+
+    private static final class CellRange {
+
+        private final int _minCX, _minCY, _maxCX, _maxCY;
+
+        private CellRange(final int pMinCX, final int pMinCY, final int pMaxCX, final int pMaxCY) {
+            super();
+
+            _minCX = pMinCX;
+            _minCY = pMinCY;
+            _maxCX = pMaxCX;
+            _maxCY = pMaxCY;
+        }
+
+        private boolean is(final int pMinCX, final int pMinCY, final int pMaxCX, final int pMaxCY) {
+            return _minCX == pMinCX && _minCY == pMinCY && _maxCX == pMaxCX && _maxCY == pMaxCY;
+        }
+
+    }
+
+}
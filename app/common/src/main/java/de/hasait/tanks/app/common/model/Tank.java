@@ -17,15 +17,26 @@
 package de.hasait.tanks.app.common.model;
 
 import java.io.ObjectStreamException;
-import java.util.UUID;
 
 /**
  *
  */
 public class Tank extends AbstractMovableGameObject<TankState> {
 
+    /**
+     * Received states are extrapolated at least this long, also with unlimited send rate.
+     */
+    public static final long MIN_EXTRAPOLATION_MILLIS = 150L;
+
     private final String _name;
 
+    /**
+     * Last state received from the owner, see {@link #applyReceived(TankState, long, float)}.
+     */
+    private final TankState _receivedState = new TankState();
+    private long _receivedMillis;
+    private float _receivedSpeed;
+
     public Tank(final String pOwnerAddress, final int pWidth, final int pHeight, final String pName, final TankState pState) {
         super(pOwnerAddress, pWidth, pHeight);
 
@@ -35,23 +46,72 @@ public Tank(final String pOwnerAddress, final int pWidth, final int pHeight, fin
     }
 
 
-    public Tank(final String pOwnerAddress, final int pWidth, final int pHeight, final String pName, final long pSpawnAtMillis) {
-        this(pOwnerAddress, pWidth, pHeight, pName, createState(pSpawnAtMillis));
+    public Tank(final String pOwnerAddress, final int pWidth, final int pHeight, final String pName, final long pId, final long pSpawnAtMillis) {
+        this(pOwnerAddress, pWidth, pHeight, pName, createState(pId, pSpawnAtMillis));
     }
 
-    private static TankState createState(final long pSpawnAtMillis) {
+    private static TankState createState(final long pId, final long pSpawnAtMillis) {
         final TankState state = new TankState();
-        state._uuid = UUID.randomUUID().toString();
+        state._id = pId;
         state._spawnAtMillis = pSpawnAtMillis;
         return state;
     }
 
+    /**
+     * Dead reckoning for remote tanks: apply the last received state moved along the current direction. Without a newer state
+     * after <code>pMaxMillis</code> the tank stopped, so the received state is applied as it is. Synchronized with
+     * {@link #applyReceived(TankState, long, float)}, as both swap the double buffered state.
+     *
+     * @return false if there is nothing to extrapolate.
+     */
+    public synchronized boolean extrapolate(final long pTimeMillis, final long pMaxMillis) {
+        if (_receivedSpeed == 0.0f || _receivedMillis == 0L) {
+            return false;
+        }
+        final long millis = pTimeMillis - _receivedMillis;
+        if (millis <= 0L) {
+            return false;
+        }
+        final TankState newState = editState();
+        newState.set(_receivedState);
+        if (millis <= pMaxMillis) {
+            move(_receivedSpeed * millis / 1000.0f, newState);
+        } else {
+            _receivedSpeed = 0.0f;
+        }
+        apply(newState);
+        return true;
+    }
+
     public String getName() {
         return _name;
     }
 
-    public boolean isMyBullet(final Bullet pBullet) {
-        return getUuid().equals(pBullet.getTankUuid());
+    /**
+     * Apply a state received from the owner and estimate the speed along the direction of the tank from the previous received
+     * state; may be called by another thread than {@link #extrapolate(long, long)}.
+     *
+     * @param pMaxSpeed speed of tanks in the world; larger jumps (respawn) do not count as movement.
+     */
+    public synchronized void applyReceived(final TankState pState, final long pTimeMillis, final float pMaxSpeed) {
+        float speed = 0.0f;
+        if (_receivedMillis != 0L && pTimeMillis > _receivedMillis && pState._spawnAtMillis == null) {
+            final float dx = pState._centerX - _receivedState._centerX;
+            final float dy = pState._centerY - _receivedState._centerY;
+            // project onto (0, 1) rotated counterclockwise, same as the move vector
+            final double radians = Math.toRadians(pState._rotation);
+            final float distance = (float) (-Math.sin(radians) * dx + Math.cos(radians) * dy);
+            speed = distance * 1000.0f / (pTimeMillis - _receivedMillis);
+            if (Math.abs(speed) > 2.0f * pMaxSpeed) {
+                speed = 0.0f;
+            } else {
+                speed = Math.max(-pMaxSpeed, Math.min(pMaxSpeed, speed));
+            }
+        }
+        _receivedSpeed = speed;
+        _receivedMillis = pTimeMillis;
+        _receivedState.set(pState);
+        apply(pState);
     }
 
     public void setTurretRotation(final float pTurretRotation) {
@@ -28,4 +28,13 @@ public class TankState extends AbstractState<TankState> {
 
     public Long _spawnAtMillis;
 
+    @Override
+    public void set(final TankState pOther) {
+        super.set(pOther);
+        _turretRotation = pOther._turretRotation;
+        _points = pOther._points;
+        _damage = pOther._damage;
+        _spawnAtMillis = pOther._spawnAtMillis;
+    }
+
 }
@@ -17,17 +17,16 @@
 package de.hasait.tanks.app.common.model;
 
 import com.badlogic.gdx.math.Rectangle;
+import de.hasait.tanks.util.common.CopyOnWriteLongMap;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -35,6 +34,11 @@
  */
 public class World {
 
+    /**
+     * Catching up of bullets is limited to this, as clocks of nodes may differ, see {@link #addBullet(Bullet, long)}.
+     */
+    private static final long MAX_BULLET_FLIGHT_MILLIS = 1000L;
+
     private final int _piecesX, _piecesY;
     private final int _worldW, _worldH;
     private final Rectangle _worldR;
@@ -47,12 +51,29 @@ public class World {
 
     private final AtomicReference<Rules> _rules = new AtomicReference<>(new Rules());
 
-    private final Map<String, Tank> _tanks = new ConcurrentHashMap<>();
-    private final Map<String, Bullet> _bullets = new ConcurrentHashMap<>();
-    private final Map<String, Obstacle> _obstacles = new ConcurrentHashMap<>();
-
-    private final Map<String, LocalTank> _localLocalTanks = new HashMap<>();
-    private final Map<String, Tank> _localTanks = new HashMap<>();
+    private final CopyOnWriteLongMap<Tank> _tanks = new CopyOnWriteLongMap<>();
+    private final CopyOnWriteLongMap<Obstacle> _obstacles = new CopyOnWriteLongMap<>();
+
+    private final BulletStore _bullets;
+
+    private final SpatialIndex<Tank> _tankIndex;
+    /**
+     * Incremented whenever the obstacles change, so caches of them know when to rebuild.
+     */
+    private final AtomicInteger _obstacleVersion = new AtomicInteger();
+    /**
+     * Called with each added or removed obstacle after the change, from the thread changing the obstacles.
+     */
+    private final List<Consumer<? super Obstacle>> _obstacleListeners = new CopyOnWriteArrayList<>();
+    private volatile ObstacleGeometry _obstacleGeometry;
+    /**
+     * Map of the generated obstacles, guarded by this.
+     */
+    private long _mapSeed;
+    private int _mapObstacles;
+
+    private final CopyOnWriteLongMap<LocalTank> _localLocalTanks = new CopyOnWriteLongMap<>();
+    private final CopyOnWriteLongMap<Tank> _localTanks = new CopyOnWriteLongMap<>();
 
     public World(final int pPiecesX, final int pPiecesY) {
         super();
@@ -72,49 +93,119 @@ public World(final int pPiecesX, final int pPiecesY) {
         _worldR = new Rectangle(0, 0, _worldW, _worldH);
         _tankSpeed = (float) (Math.sqrt(_worldW * _worldW + _worldH * _worldH) / 15.0);
         _bulletSpeed = _tankSpeed * 2.0f;
+        _bullets = new BulletStore(_bulletW, _bulletH);
+        _tankIndex = new SpatialIndex<>(_piecesX, _piecesY, _tankW, _tankH);
+        _obstacleGeometry = createObstacleGeometry();
     }
 
     public void addBullet(final Bullet pBullet) {
-        _bullets.putIfAbsent(pBullet.getUuid(), pBullet);
+        _bullets.add(pBullet);
+    }
+
+    /**
+     * Add a bullet fired <code>pFlightMillis</code> ago at its position, moved to where it is now; if it hit an obstacle or left
+     * the world meanwhile, it is not added.
+     */
+    public void addBullet(final Bullet pBullet, final long pFlightMillis) {
+        final long flightMillis = Math.max(0L, Math.min(pFlightMillis, MAX_BULLET_FLIGHT_MILLIS));
+        final float distance = _bulletSpeed * flightMillis / 1000.0f;
+        final BulletState state = pBullet.getState();
+        // (0, 1) rotated counterclockwise, same as AbstractMovableGameObject
+        final double radians = Math.toRadians(state._rotation);
+        final float x1 = state._centerX - (float) Math.sin(radians) * distance;
+        final float y1 = state._centerY + (float) Math.cos(radians) * distance;
+        if (worldContains(x1, y1) && getObstacleGeometry().intersectSegment(state._centerX, state._centerY, x1, y1) < 0.0f) {
+            _bullets.add(pBullet, distance);
+        }
     }
 
     public void addLocalTank(final LocalTank pLocalTank) {
-        final String tankUuid = pLocalTank.getTankUuid();
-        _localLocalTanks.put(tankUuid, pLocalTank);
-        final Tank tank = _tanks.get(tankUuid);
+        final long tankId = pLocalTank.getTankId();
+        _localLocalTanks.put(tankId, pLocalTank);
+        final Tank tank = _tanks.get(tankId);
         if (tank != null) {
-            _localTanks.putIfAbsent(tankUuid, tank);
+            _localTanks.putIfAbsent(tankId, tank);
         }
     }
 
     public void addObstacle(final Obstacle pObstacle) {
-        _obstacles.putIfAbsent(pObstacle.getUuid(), pObstacle);
+        if (_obstacles.putIfAbsent(pObstacle.getId(), pObstacle) == null) {
+            _obstacleVersion.incrementAndGet();
+            fireObstacleChanged(pObstacle);
+        }
+    }
+
+    public void addObstacleListener(final Consumer<? super Obstacle> pListener) {
+        _obstacleListeners.add(pListener);
+    }
+
+    /**
+     * Add many obstacles at once, so the obstacles are copied only once.
+     */
+    public void addObstacles(final Collection<Obstacle> pObstacles) {
+        if (_obstacles.putAllIfAbsent(pObstacles, Obstacle::getId) > 0) {
+            _obstacleVersion.incrementAndGet();
+            // also obstacles already present, which is harmless for the listeners
+            pObstacles.forEach(this::fireObstacleChanged);
+        }
     }
 
     public void addTank(final Tank pTank) {
-        final String tankUuid = pTank.getUuid();
-        final boolean newTank = _tanks.putIfAbsent(tankUuid, pTank) == null;
+        final long tankId = pTank.getId();
+        final boolean newTank = _tanks.putIfAbsent(tankId, pTank) == null;
         if (newTank) {
-            if (_localLocalTanks.containsKey(tankUuid)) {
-                _localTanks.put(tankUuid, pTank);
+            _tankIndex.update(pTank);
+            if (_localLocalTanks.containsKey(tankId)) {
+                _localTanks.put(tankId, pTank);
             }
         }
     }
 
     public void apply(final TankState pTankState) {
-        final Tank tank = _tanks.get(pTankState._uuid);
+        final Tank tank = _tanks.get(pTankState._id);
         if (tank != null) {
             tank.apply(pTankState);
+            _tankIndex.update(tank);
         }
     }
 
-    public void apply(final BulletState pBulletState) {
-        final Bullet bullet = _bullets.get(pBulletState._uuid);
-        if (bullet != null) {
-            bullet.apply(pBulletState);
+    /**
+     * Apply a state received from the owner of the tank, remembering it for extrapolation.
+     */
+    public void applyReceived(final TankState pTankState, final long pTimeMillis) {
+        final Tank tank = _tanks.get(pTankState._id);
+        if (tank != null) {
+            tank.applyReceived(pTankState, pTimeMillis, _tankSpeed);
+            _tankIndex.update(tank);
         }
     }
 
+    /**
+     * Move a remote tank along its direction since its last received state, see {@link Tank#extrapolate(long, long)}; at most for
+     * two send intervals of {@link Rules#_maxTankSendHz}, as the next state is due within one.
+     */
+    public void extrapolate(final Tank pTank, final long pTimeMillis) {
+        final int maxTankSendHz = getRules()._maxTankSendHz;
+        final long maxMillis = Math.max(Tank.MIN_EXTRAPOLATION_MILLIS, maxTankSendHz > 0 ? 2000L / maxTankSendHz : 0L);
+        if (pTank.extrapolate(pTimeMillis, maxMillis)) {
+            _tankIndex.update(pTank);
+        }
+    }
+
+    /**
+     * Call each obstacle whose bounding rectangle overlaps the given rectangle; candidates still need an exact test.
+     */
+    public void findObstacles(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final Consumer<? super Obstacle> pConsumer) {
+        getObstacleGeometry().forEach(pMinX, pMinY, pMaxX, pMaxY, pConsumer);
+    }
+
+    /**
+     * Call each tank whose index cells overlap the given rectangle; candidates still need an exact test.
+     */
+    public void findTanks(final float pMinX, final float pMinY, final float pMaxX, final float pMaxY, final Consumer<? super Tank> pConsumer) {
+        _tankIndex.query(pMinX, pMinY, pMaxX, pMaxY, pConsumer);
+    }
+
     public int getBulletH() {
         return _bulletH;
     }
@@ -127,20 +218,20 @@ public int getBulletW() {
         return _bulletW;
     }
 
-    public Collection<Bullet> getBullets() {
-        return Collections.unmodifiableCollection(_bullets.values());
+    public BulletStore getBullets() {
+        return _bullets;
     }
 
     public Collection<LocalTank> getLocalLocalTanks() {
-        return Collections.unmodifiableCollection(_localLocalTanks.values());
+        return _localLocalTanks.values();
     }
 
-    public Optional<LocalTank> getLocalTank(final String pTankUuid) {
-        return Optional.of(_localLocalTanks.get(pTankUuid));
+    public Optional<LocalTank> getLocalTank(final long pTankId) {
+        return Optional.ofNullable(_localLocalTanks.get(pTankId));
     }
 
     public Collection<Tank> getLocalTanks() {
-        return Collections.unmodifiableCollection(_localTanks.values());
+        return _localTanks.values();
     }
 
     public int getObstacleH() {
@@ -151,8 +242,25 @@ public int getObstacleW() {
         return _obstacleW;
     }
 
+    /**
+     * @return geometry of the current obstacles, rebuilt on first access after a change, so adding many obstacles builds it once.
+     */
+    public ObstacleGeometry getObstacleGeometry() {
+        ObstacleGeometry obstacleGeometry = _obstacleGeometry;
+        if (obstacleGeometry.getVersion() != _obstacleVersion.get()) {
+            synchronized (this) {
+                obstacleGeometry = _obstacleGeometry;
+                if (obstacleGeometry.getVersion() != _obstacleVersion.get()) {
+                    obstacleGeometry = createObstacleGeometry();
+                    _obstacleGeometry = obstacleGeometry;
+                }
+            }
+        }
+        return obstacleGeometry;
+    }
+
     public Collection<Obstacle> getObstacles() {
-        return Collections.unmodifiableCollection(_obstacles.values());
+        return _obstacles.values();
     }
 
     public int getPiecesX() {
@@ -167,22 +275,16 @@ public Rules getRules() {
         return _rules.get();
     }
 
+    /**
+     * Also generates the obstacles of the map, if the map of the rules differs from the current one.
+     */
     public void setRules(final Rules pRules) {
         _rules.set(pRules);
+        generateMap(pRules._mapSeed, pRules._mapObstacles);
     }
 
-    public List<Object> getSharedState() {
-        // Only add objects shared on all network nodes (eg. not LocalTanks)
-        final List<Object> objects = new ArrayList<>();
-        objects.addAll(_obstacles.values());
-        objects.addAll(_tanks.values());
-        objects.addAll(_bullets.values());
-        objects.add(getRules());
-        return objects;
-    }
-
-    public Optional<Tank> getTank(final String pTankUuid) {
-        return Optional.of(_tanks.get(pTankUuid));
+    public Optional<Tank> getTank(final long pTankId) {
+        return Optional.ofNullable(_tanks.get(pTankId));
     }
 
     public int getTankH() {
@@ -198,7 +300,7 @@ public int getTankW() {
     }
 
     public Collection<Tank> getTanks() {
-        return Collections.unmodifiableCollection(_tanks.values());
+        return _tanks.values();
     }
 
     public int getTurretH() {
@@ -217,35 +319,60 @@ public int getWorldW() {
         return _worldW;
     }
 
-    public void removeBullet(final String pBulletUuid) {
-        _bullets.remove(pBulletUuid);
+    public boolean isLocalTank(final long pTankId) {
+        return _localLocalTanks.containsKey(pTankId);
     }
 
-    public void removeBullets(final Predicate<? super Bullet> pPredicate) {
-        final Iterator<Bullet> bulletI = _bullets.values().iterator();
-        while (bulletI.hasNext()) {
-            final Bullet bullet = bulletI.next();
-            if (pPredicate.test(bullet)) {
-                bulletI.remove();
-            }
-        }
+    public void removeBullet(final long pBulletId) {
+        _bullets.remove(pBulletId);
+    }
+
+    public void removeBullets(final String pOwnerAddress) {
+        _bullets.removeByOwnerAddress(pOwnerAddress);
+    }
+
+    public void removeObstacleListener(final Consumer<? super Obstacle> pListener) {
+        _obstacleListeners.remove(pListener);
     }
 
     public void removeTanks(final Predicate<? super Tank> pPredicate) {
-        final Iterator<Tank> tankI = _tanks.values().iterator();
-        while (tankI.hasNext()) {
-            final Tank tank = tankI.next();
-            if (pPredicate.test(tank)) {
-                tankI.remove();
-                final String tankUuid = tank.getUuid();
-                _localLocalTanks.remove(tankUuid);
-                _localTanks.remove(tankUuid);
-            }
-        }
+        _tanks.removeIf(pPredicate, pTank -> {
+            _tankIndex.remove(pTank);
+            final long tankId = pTank.getId();
+            _localLocalTanks.remove(tankId);
+            _localTanks.remove(tankId);
+        });
     }
 
     public boolean worldContains(final float pX, final float pY) {
         return _worldR.contains(pX, pY);
     }
 
+    private synchronized void generateMap(final long pSeed, final int pCount) {
+        if (pSeed == _mapSeed && pCount == _mapObstacles) {
+            return;
+        }
+        _mapSeed = pSeed;
+        _mapObstacles = pCount;
+        final List<Obstacle> removed = new ArrayList<>();
+        _obstacles.removeIf(MapGenerator::isGenerated, removed::add);
+        final Collection<Obstacle> generated = MapGenerator.generate(this, pSeed, pCount);
+        _obstacles.putAllIfAbsent(generated, Obstacle::getId);
+        _obstacleVersion.incrementAndGet();
+        removed.forEach(this::fireObstacleChanged);
+        generated.forEach(this::fireObstacleChanged);
+    }
+
+    private ObstacleGeometry createObstacleGeometry() {
+        // version first, so obstacles added meanwhile cause another rebuild
+        final int version = _obstacleVersion.get();
+        return new ObstacleGeometry(version, _obstacles.values(), _piecesX, _piecesY, _tankW, _tankH);
+    }
+
+    private void fireObstacleChanged(final Obstacle pObstacle) {
+        for (final Consumer<? super Obstacle> listener : _obstacleListeners) {
+            listener.accept(pObstacle);
+        }
+    }
+
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Regions a node wants to receive tank states for; see {@link de.hasait.tanks.app.common.model.InterestRegions}.
+ */
+public class InterestMsg implements Serializable {
+
+    /**
+     * <code>null</code> for the whole world.
+     */
+    public BitSet _regions;
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import de.hasait.tanks.app.common.model.MapGenerator;
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.ObstacleState;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.World;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary map file: a fixed size header with the world size and the {@link Rules}, followed by packed obstacle records of
+ * {@value #OBSTACLE_BYTES} bytes each.
+ * <p>
+ * Files are read into a heap buffer and closed right away, as the world decodes every record anyway; reading checks only the
+ * header and the file size, the records are decoded by index on access.
+ * Obstacles generated from the map seed of the rules are not written, they are generated again when the rules are applied.
+ */
+public final class MapFileCodec {
+
+    /**
+     * "TMAP"
+     */
+    public static final int MAGIC = 0x544D4150;
+
+    private static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = 80;
+    private static final int OBSTACLE_BYTES = 16;
+
+    private static final int MAX_OBSTACLE_SIZE = 0xFFFF;
+
+    private MapFileCodec() {
+        super();
+    }
+
+    public static MapFile read(final Path pPath) throws IOException {
+        return new MapFile(ByteBuffer.wrap(Files.readAllBytes(pPath)));
+    }
+
+    /**
+     * Write the size, rules and obstacles of the world; tanks and bullets are not part of a map.
+     */
+    public static void write(final World pWorld, final Path pPath) throws IOException {
+        final List<Obstacle> obstacles = new ArrayList<>();
+        for (final Obstacle obstacle : pWorld.getObstacles()) {
+            if (!MapGenerator.isGenerated(obstacle)) {
+                obstacles.add(obstacle);
+            }
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + obstacles.size() * OBSTACLE_BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(pWorld.getPiecesX());
+        buffer.putInt(pWorld.getPiecesY());
+        final Rules rules = pWorld.getRules();
+        buffer.putInt(rules._maxDamage);
+        buffer.putLong(rules._spawnTimeMillis);
+        buffer.putLong(rules._respawnTimeMillis);
+        buffer.putLong(rules._timeMillisBetweenShots);
+        buffer.putInt(rules._maxTankSendHz);
+        buffer.putFloat(rules._positionEpsilon);
+        buffer.putFloat(rules._rotationEpsilon);
+        buffer.putLong(rules._keyframeIntervalMillis);
+        buffer.putLong(rules._mapSeed);
+        buffer.putInt(rules._mapObstacles);
+        buffer.putInt(obstacles.size());
+        for (final Obstacle obstacle : obstacles) {
+            if (obstacle.getWidth() > MAX_OBSTACLE_SIZE || obstacle.getHeight() > MAX_OBSTACLE_SIZE) {
+                throw new IOException("Obstacle too large for map file: " + obstacle);
+            }
+            final ObstacleState state = obstacle.getState();
+            buffer.putShort((short) obstacle.getWidth());
+            buffer.putShort((short) obstacle.getHeight());
+            buffer.putFloat(state._centerX);
+            buffer.putFloat(state._centerY);
+            buffer.putFloat(state._rotation);
+        }
+        buffer.flip();
+
+        try (final FileChannel channel = FileChannel.open(pPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        )) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Result of {@link #read(Path)}; obstacles are read from the buffer by index.
+     */
+    public static final class MapFile {
+
+        private final ByteBuffer _buffer;
+        private final int _piecesX, _piecesY;
+        private final Rules _rules = new Rules();
+        private final int _obstacleCount;
+
+        private MapFile(final ByteBuffer pBuffer) throws IOException {
+            super();
+
+            _buffer = pBuffer;
+            if (_buffer.remaining() < HEADER_BYTES || _buffer.getInt() != MAGIC) {
+                throw new IOException("Not a map file");
+            }
+            final short version = _buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported map file version: " + version);
+            }
+            _buffer.getShort();
+            _piecesX = _buffer.getInt();
+            _piecesY = _buffer.getInt();
+            _rules._maxDamage = _buffer.getInt();
+            _rules._spawnTimeMillis = _buffer.getLong();
+            _rules._respawnTimeMillis = _buffer.getLong();
+            _rules._timeMillisBetweenShots = _buffer.getLong();
+            _rules._maxTankSendHz = _buffer.getInt();
+            _rules._positionEpsilon = _buffer.getFloat();
+            _rules._rotationEpsilon = _buffer.getFloat();
+            _rules._keyframeIntervalMillis = _buffer.getLong();
+            _rules._mapSeed = _buffer.getLong();
+            _rules._mapObstacles = _buffer.getInt();
+            _obstacleCount = _buffer.getInt();
+            if (_obstacleCount < 0 || _buffer.capacity() != HEADER_BYTES + (long) _obstacleCount * OBSTACLE_BYTES) {
+                throw new IOException("Map file size does not match its " + _obstacleCount + " obstacles");
+            }
+        }
+
+        public int getObstacleCount() {
+            return _obstacleCount;
+        }
+
+        public float getObstacleCenterX(final int pIndex) {
+            return _buffer.getFloat(offset(pIndex) + 4);
+        }
+
+        public float getObstacleCenterY(final int pIndex) {
+            return _buffer.getFloat(offset(pIndex) + 8);
+        }
+
+        public int getObstacleHeight(final int pIndex) {
+            return _buffer.getShort(offset(pIndex) + 2) & 0xFFFF;
+        }
+
+        public float getObstacleRotation(final int pIndex) {
+            return _buffer.getFloat(offset(pIndex) + 12);
+        }
+
+        public int getObstacleWidth(final int pIndex) {
+            return _buffer.getShort(offset(pIndex)) & 0xFFFF;
+        }
+
+        public int getPiecesX() {
+            return _piecesX;
+        }
+
+        public int getPiecesY() {
+            return _piecesY;
+        }
+
+        public Rules getRules() {
+            return _rules;
+        }
+
+        private int offset(final int pIndex) {
+            return HEADER_BYTES + pIndex * OBSTACLE_BYTES;
+        }
+
+    }
+
+}
@@ -16,7 +16,6 @@
 
 package de.hasait.tanks.app.common.msg;
 
-import de.hasait.tanks.app.common.model.BulletState;
 import de.hasait.tanks.app.common.model.TankState;
 
 import java.io.Serializable;
@@ -30,14 +29,24 @@
  */
 public class UpdateMsg implements Serializable {
 
-    public final Set<TankState> _tanks = new HashSet<>();
-    public final Set<BulletState> _bullets = new HashSet<>();
-    public final Set<String> _removedBullets = new HashSet<>();
-    public final Set<String> _removedTanks = new HashSet<>();
-    public final List<String> _incrementDamage = new ArrayList<>();
+    public final List<TankState> _tanks = new ArrayList<>();
+    public final Set<Long> _removedBullets = new HashSet<>();
+    public final Set<Long> _removedTanks = new HashSet<>();
+    public final List<Long> _incrementDamage = new ArrayList<>();
+    /**
+     * Increasing per sender; assigned when sent, all parts of a split message share it.
+     */
+    public long _sequence;
+
+    public void clear() {
+        _tanks.clear();
+        _removedBullets.clear();
+        _removedTanks.clear();
+        _incrementDamage.clear();
+    }
 
     public boolean isEmpty() {
-        return _tanks.isEmpty() && _bullets.isEmpty() && _removedBullets.isEmpty() && _removedTanks.isEmpty() && _incrementDamage.isEmpty();
+        return _tanks.isEmpty() && _removedBullets.isEmpty() && _removedTanks.isEmpty() && _incrementDamage.isEmpty();
     }
 
 }
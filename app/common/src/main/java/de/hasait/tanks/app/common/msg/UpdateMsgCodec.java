@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import com.badlogic.gdx.utils.LongMap;
+import de.hasait.tanks.app.common.model.AbstractState;
+import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.util.common.VarInts;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Binary encoding of {@link UpdateMsg}s.
+ * <p>
+ * Positions and rotations are quantized, integers are varints and per object only the fields changed since the last message
+ * for that object are written. Every {@value #KEYFRAME_INTERVAL}th message per object and the first one after
+ * {@link #resetBaselines()} contain all fields, so receivers without a baseline catch up.
+ * <p>
+ * Deltas rely on the FIFO delivery per sender of the JGroups stack, so the baseline of the receiver is always the last message
+ * of the (single) owner of an object.
+ */
+public class UpdateMsgCodec {
+
+    /**
+     * First byte of every encoded message; never used by JGroups as type marker for serialized objects.
+     */
+    public static final byte MAGIC = 0x54;
+
+    private static final byte VERSION = 3;
+
+    private static final int KEYFRAME_INTERVAL = 30;
+
+    private static final float POSITION_SCALE = 16.0f;
+    private static final float ROTATION_SCALE = 65536.0f / 360.0f;
+
+    private static final int FIELD_CENTER_X = 1;
+    private static final int FIELD_CENTER_Y = 1 << 1;
+    private static final int FIELD_ROTATION = 1 << 2;
+    private static final int FIELD_TURRET_ROTATION = 1 << 3;
+    private static final int FIELD_POINTS = 1 << 4;
+    private static final int FIELD_DAMAGE = 1 << 5;
+    private static final int FIELD_SPAWN_AT = 1 << 6;
+
+    private static final int TANK_FIELDS = FIELD_CENTER_X | FIELD_CENTER_Y | FIELD_ROTATION | FIELD_TURRET_ROTATION | FIELD_POINTS | FIELD_DAMAGE | FIELD_SPAWN_AT;
+
+    private final LongMap<Quantized> _sentTanks = new LongMap<>();
+
+    private final LongMap<Quantized> _receivedTanks = new LongMap<>();
+
+    public static boolean isEncoded(final byte[] pBuffer, final int pOffset, final int pLength) {
+        return pBuffer != null && pLength > 0 && pBuffer[pOffset] == MAGIC;
+    }
+
+    private static float dequantizePosition(final int pValue) {
+        return pValue / POSITION_SCALE;
+    }
+
+    private static float dequantizeRotation(final int pValue) {
+        return pValue / ROTATION_SCALE;
+    }
+
+    private static int quantizePosition(final float pValue) {
+        return Math.round(pValue * POSITION_SCALE);
+    }
+
+    private static int quantizeRotation(final float pValue) {
+        float rotation = pValue % 360.0f;
+        if (rotation < 0.0f) {
+            rotation += 360.0f;
+        }
+        return Math.round(rotation * ROTATION_SCALE) & 0xFFFF;
+    }
+
+    private static void readIds(final DataInput pInput, final Collection<Long> pIds) throws IOException {
+        final int count = VarInts.readVarInt(pInput);
+        for (int i = 0; i < count; i++) {
+            pIds.add(VarInts.readVarLong(pInput));
+        }
+    }
+
+    private static void writeIds(final DataOutput pOutput, final Collection<Long> pIds) throws IOException {
+        VarInts.writeVarInt(pOutput, pIds.size());
+        for (final long id : pIds) {
+            VarInts.writeVarLong(pOutput, id);
+        }
+    }
+
+    public synchronized UpdateMsg decode(final byte[] pBuffer, final int pOffset, final int pLength) throws IOException {
+        final ByteArrayDataInputStream input = new ByteArrayDataInputStream(pBuffer, pOffset, pLength);
+        if (input.readByte() != MAGIC) {
+            throw new IOException("Not an encoded UpdateMsg");
+        }
+        final byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported UpdateMsg version: " + version);
+        }
+
+        final UpdateMsg updateMsg = new UpdateMsg();
+        updateMsg._sequence = VarInts.readVarLong(input);
+
+        final int tankCount = VarInts.readVarInt(input);
+        for (int i = 0; i < tankCount; i++) {
+            final TankState tankState = new TankState();
+            if (readState(input, _receivedTanks, TANK_FIELDS, tankState)) {
+                updateMsg._tanks.add(tankState);
+            }
+        }
+        readIds(input, updateMsg._removedBullets);
+        readIds(input, updateMsg._removedTanks);
+        readIds(input, updateMsg._incrementDamage);
+
+        for (final long id : updateMsg._removedTanks) {
+            _receivedTanks.remove(id);
+        }
+
+        return updateMsg;
+    }
+
+    public byte[] encode(final UpdateMsg pUpdateMsg) throws IOException {
+        return encode(pUpdateMsg, Integer.MAX_VALUE).get(0);
+    }
+
+    /**
+     * Encode into as many messages as needed to keep each below <code>pMaxLength</code> bytes; only a single object exceeding
+     * the limit on its own yields a larger message. Every message is decodable on its own, as baselines are per object.
+     */
+    public synchronized List<byte[]> encode(final UpdateMsg pUpdateMsg, final int pMaxLength) throws IOException {
+        final List<byte[]> messages = new ArrayList<>(1);
+        final ByteArrayDataOutputStream entry = new ByteArrayDataOutputStream(32);
+        Part part = new Part(pUpdateMsg._sequence);
+
+        for (final TankState tankState : pUpdateMsg._tanks) {
+            entry.position(0);
+            writeState(entry, _sentTanks, TANK_FIELDS, tankState);
+            part = ensureSpace(part, entry.position(), pMaxLength, messages);
+            part._tanks.write(entry.buffer(), 0, entry.position());
+            part._tankCount++;
+        }
+        for (final long id : pUpdateMsg._removedBullets) {
+            final int idLength = VarInts.sizeOfVarLong(id);
+            part = ensureSpace(part, idLength, pMaxLength, messages);
+            part._removedBullets.add(id);
+            part._idsLength += idLength;
+        }
+        for (final long id : pUpdateMsg._removedTanks) {
+            final int idLength = VarInts.sizeOfVarLong(id);
+            part = ensureSpace(part, idLength, pMaxLength, messages);
+            part._removedTanks.add(id);
+            part._idsLength += idLength;
+        }
+        for (final long id : pUpdateMsg._incrementDamage) {
+            final int idLength = VarInts.sizeOfVarLong(id);
+            part = ensureSpace(part, idLength, pMaxLength, messages);
+            part._incrementDamage.add(id);
+            part._idsLength += idLength;
+        }
+        messages.add(part.toBytes());
+
+        for (final long id : pUpdateMsg._removedTanks) {
+            _sentTanks.remove(id);
+        }
+
+        return messages;
+    }
+
+    /**
+     * Next message for every object will contain all fields; used after new nodes joined.
+     */
+    public synchronized void resetBaselines() {
+        _sentTanks.clear();
+    }
+
+    private Part ensureSpace(final Part pPart, final int pEntryLength, final int pMaxLength, final List<byte[]> pMessages)
+            throws IOException {
+        if (pPart.isEmpty() || pPart.maxLength() + pEntryLength <= pMaxLength) {
+            return pPart;
+        }
+        pMessages.add(pPart.toBytes());
+        return new Part(pPart._sequence);
+    }
+
+    private boolean readState(final DataInput pInput, final LongMap<Quantized> pBaselines, final int pAllFields,
+                              final AbstractState<?> pState) throws IOException {
+        final long id = VarInts.readVarLong(pInput);
+        final int fields = pInput.readUnsignedByte();
+        final Quantized baseline = pBaselines.get(id);
+        final Quantized value = baseline == null ? new Quantized() : baseline.copy();
+        if ((fields & FIELD_CENTER_X) != 0) {
+            value._centerX = VarInts.readSignedVarInt(pInput);
+        }
+        if ((fields & FIELD_CENTER_Y) != 0) {
+            value._centerY = VarInts.readSignedVarInt(pInput);
+        }
+        if ((fields & FIELD_ROTATION) != 0) {
+            value._rotation = pInput.readUnsignedShort();
+        }
+        if ((fields & FIELD_TURRET_ROTATION) != 0) {
+            value._turretRotation = pInput.readUnsignedShort();
+        }
+        if ((fields & FIELD_POINTS) != 0) {
+            value._points = VarInts.readSignedVarInt(pInput);
+        }
+        if ((fields & FIELD_DAMAGE) != 0) {
+            value._damage = VarInts.readSignedVarInt(pInput);
+        }
+        if ((fields & FIELD_SPAWN_AT) != 0) {
+            final long spawnAt = VarInts.readVarLong(pInput);
+            value._spawnAtMillis = spawnAt == 0 ? null : spawnAt - 1;
+        }
+
+        if (baseline == null && fields != pAllFields) {
+            // delta without baseline (joined after the last keyframe) - wait for next keyframe
+            return false;
+        }
+        pBaselines.put(id, value);
+
+        pState._id = id;
+        pState._centerX = dequantizePosition(value._centerX);
+        pState._centerY = dequantizePosition(value._centerY);
+        pState._rotation = dequantizeRotation(value._rotation);
+        if (pState instanceof TankState) {
+            final TankState tankState = (TankState) pState;
+            tankState._turretRotation = dequantizeRotation(value._turretRotation);
+            tankState._points = value._points;
+            tankState._damage = value._damage;
+            tankState._spawnAtMillis = value._spawnAtMillis;
+        }
+        return true;
+    }
+
+    private void writeState(final DataOutput pOutput, final LongMap<Quantized> pBaselines, final int pAllFields,
+                            final AbstractState<?> pState) throws IOException {
+        final Quantized value = new Quantized();
+        value._centerX = quantizePosition(pState._centerX);
+        value._centerY = quantizePosition(pState._centerY);
+        value._rotation = quantizeRotation(pState._rotation);
+        if (pState instanceof TankState) {
+            final TankState tankState = (TankState) pState;
+            value._turretRotation = quantizeRotation(tankState._turretRotation);
+            value._points = tankState._points;
+            value._damage = tankState._damage;
+            value._spawnAtMillis = tankState._spawnAtMillis;
+        }
+
+        final Quantized baseline = pBaselines.get(pState._id);
+        final int fields;
+        if (baseline == null || baseline._sinceKeyframe >= KEYFRAME_INTERVAL) {
+            fields = pAllFields;
+        } else {
+            fields = value.diff(baseline) & pAllFields;
+            value._sinceKeyframe = baseline._sinceKeyframe + 1;
+        }
+        pBaselines.put(pState._id, value);
+
+        VarInts.writeVarLong(pOutput, pState._id);
+        pOutput.writeByte(fields);
+        if ((fields & FIELD_CENTER_X) != 0) {
+            VarInts.writeSignedVarInt(pOutput, value._centerX);
+        }
+        if ((fields & FIELD_CENTER_Y) != 0) {
+            VarInts.writeSignedVarInt(pOutput, value._centerY);
+        }
+        if ((fields & FIELD_ROTATION) != 0) {
+            pOutput.writeShort(value._rotation);
+        }
+        if ((fields & FIELD_TURRET_ROTATION) != 0) {
+            pOutput.writeShort(value._turretRotation);
+        }
+        if ((fields & FIELD_POINTS) != 0) {
+            VarInts.writeSignedVarInt(pOutput, value._points);
+        }
+        if ((fields & FIELD_DAMAGE) != 0) {
+            VarInts.writeSignedVarInt(pOutput, value._damage);
+        }
+        if ((fields & FIELD_SPAWN_AT) != 0) {
+            VarInts.writeVarLong(pOutput, value._spawnAtMillis == null ? 0 : value._spawnAtMillis + 1);
+        }
+    }
+
+    /**
+     * One message of a split UpdateMsg under construction.
+     */
+    private static final class Part {
+
+        /**
+         * Magic, version and the worst case size of the sequence and the four count varints.
+         */
+        private static final int HEADER_MAX_LENGTH = 2 + 10 + 4 * 5;
+
+        private final long _sequence;
+
+        private final ByteArrayDataOutputStream _tanks = new ByteArrayDataOutputStream(128);
+        private final List<Long> _removedBullets = new ArrayList<>();
+        private final List<Long> _removedTanks = new ArrayList<>();
+        private final List<Long> _incrementDamage = new ArrayList<>();
+        private int _tankCount;
+        private int _idsLength;
+
+        private Part(final long pSequence) {
+            super();
+
+            _sequence = pSequence;
+        }
+
+        private boolean isEmpty() {
+            return _tankCount == 0 && _removedBullets.isEmpty() && _removedTanks.isEmpty()
+                    && _incrementDamage.isEmpty();
+        }
+
+        private int maxLength() {
+            return HEADER_MAX_LENGTH + _tanks.position() + _idsLength;
+        }
+
+        private byte[] toBytes() throws IOException {
+            final ByteArrayDataOutputStream output = new ByteArrayDataOutputStream(maxLength());
+            output.writeByte(MAGIC);
+            output.writeByte(VERSION);
+            VarInts.writeVarLong(output, _sequence);
+            VarInts.writeVarInt(output, _tankCount);
+            output.write(_tanks.buffer(), 0, _tanks.position());
+            writeIds(output, _removedBullets);
+            writeIds(output, _removedTanks);
+            writeIds(output, _incrementDamage);
+
+            final byte[] result = new byte[output.position()];
+            System.arraycopy(output.buffer(), 0, result, 0, result.length);
+            return result;
+        }
+
+    }
+
+    private static final class Quantized {
+
+        private int _centerX, _centerY;
+        private int _rotation;
+        private int _turretRotation;
+        private int _points, _damage;
+        private Long _spawnAtMillis;
+
+        private int _sinceKeyframe;
+
+        private Quantized copy() {
+            final Quantized copy = new Quantized();
+            copy._centerX = _centerX;
+            copy._centerY = _centerY;
+            copy._rotation = _rotation;
+            copy._turretRotation = _turretRotation;
+            copy._points = _points;
+            copy._damage = _damage;
+            copy._spawnAtMillis = _spawnAtMillis;
+            return copy;
+        }
+
+        private int diff(final Quantized pOther) {
+            int fields = 0;
+            if (_centerX != pOther._centerX) {
+                fields |= FIELD_CENTER_X;
+            }
+            if (_centerY != pOther._centerY) {
+                fields |= FIELD_CENTER_Y;
+            }
+            if (_rotation != pOther._rotation) {
+                fields |= FIELD_ROTATION;
+            }
+            if (_turretRotation != pOther._turretRotation) {
+                fields |= FIELD_TURRET_ROTATION;
+            }
+            if (_points != pOther._points) {
+                fields |= FIELD_POINTS;
+            }
+            if (_damage != pOther._damage) {
+                fields |= FIELD_DAMAGE;
+            }
+            if (!Objects.equals(_spawnAtMillis, pOther._spawnAtMillis)) {
+                fields |= FIELD_SPAWN_AT;
+            }
+            return fields;
+        }
+
+    }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import de.hasait.tanks.app.common.model.AbstractState;
+import de.hasait.tanks.app.common.model.Bullet;
+import de.hasait.tanks.app.common.model.BulletState;
+import de.hasait.tanks.app.common.model.MapGenerator;
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.ObstacleState;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.Tank;
+import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.app.common.model.World;
+import de.hasait.tanks.util.common.VarInts;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary snapshot of a {@link World} for the state transfer to joining nodes.
+ * <p>
+ * After a small header the objects follow in chunks of at most {@value #CHUNK_SIZE}, each flushed on its own, so with a streaming
+ * state transfer (<code>pbcast.STATE</code>, as in the stacks shipped with the game) the joiner builds its world while the provider
+ * is still writing. The body is optionally deflated. The snapshot carries the last
+ * {@link UpdateMsg#_sequence} applied per sender, so the joiner can drop older messages received during the transfer, and the
+ * node ids assigned to the members.
+ * Obstacles generated from the map seed of the {@link Rules} are not written, the joiner generates them itself.
+ */
+public final class WorldSnapshotCodec {
+
+    /**
+     * First byte of every snapshot; distinguishes it from the former Java serialized state.
+     */
+    public static final byte MAGIC = 0x57;
+
+    private static final byte VERSION = 4;
+
+    private static final int FLAG_DEFLATED = 1;
+
+    private static final int CHUNK_SIZE = 256;
+
+    private static final byte CHUNK_END = 0;
+    private static final byte CHUNK_OBSTACLES = 1;
+    private static final byte CHUNK_TANKS = 2;
+    private static final byte CHUNK_BULLETS = 3;
+
+    private WorldSnapshotCodec() {
+        super();
+    }
+
+    public static Snapshot read(final InputStream pInput) throws IOException {
+        final DataInputStream header = new DataInputStream(pInput);
+        if (header.readByte() != MAGIC) {
+            throw new IOException("Not a world snapshot");
+        }
+        final byte version = header.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported world snapshot version: " + version);
+        }
+        final int flags = header.readUnsignedByte();
+
+        final Inflater inflater = (flags & FLAG_DEFLATED) != 0 ? new Inflater() : null;
+        try {
+            final InputStream bodyInput = inflater != null ? new InflaterInputStream(pInput, inflater) : pInput;
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(bodyInput));
+
+            final World world = new World(VarInts.readVarInt(input), VarInts.readVarInt(input));
+            world.setRules(readRules(input));
+
+            final Map<String, Long> sequences = new HashMap<>();
+            final int sequenceCount = VarInts.readVarInt(input);
+            for (int i = 0; i < sequenceCount; i++) {
+                sequences.put(input.readUTF(), VarInts.readVarLong(input));
+            }
+
+            final Map<String, Integer> nodeIds = new HashMap<>();
+            final int nodeIdCount = VarInts.readVarInt(input);
+            for (int i = 0; i < nodeIdCount; i++) {
+                nodeIds.put(input.readUTF(), VarInts.readVarInt(input));
+            }
+
+            final List<String> owners = new ArrayList<>();
+            // added at once, as every single add copies all obstacles
+            final List<Obstacle> obstacles = new ArrayList<>();
+            byte chunkType;
+            while ((chunkType = input.readByte()) != CHUNK_END) {
+                final int count = VarInts.readVarInt(input);
+                for (int i = 0; i < count; i++) {
+                    final String owner = readOwner(input, owners);
+                    switch (chunkType) {
+                        case CHUNK_OBSTACLES:
+                            obstacles.add(readObstacle(input, owner));
+                            break;
+                        case CHUNK_TANKS:
+                            world.addTank(readTank(input, owner));
+                            break;
+                        case CHUNK_BULLETS:
+                            world.addBullet(readBullet(input, owner, world));
+                            break;
+                        default:
+                            throw new IOException("Unknown chunk type: " + chunkType);
+                    }
+                }
+            }
+            world.addObstacles(obstacles);
+
+            return new Snapshot(world, sequences, nodeIds);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * @param pSequences last sequence number applied per sender address.
+     * @param pNodeIds   node id per member address.
+     */
+    public static void write(final World pWorld, final Map<String, Long> pSequences, final Map<String, Integer> pNodeIds,
+                             final boolean pDeflate, final OutputStream pOutput) throws IOException {
+        final DataOutputStream header = new DataOutputStream(pOutput);
+        header.writeByte(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(pDeflate ? FLAG_DEFLATED : 0);
+        header.flush();
+
+        final Deflater deflater = pDeflate ? new Deflater(Deflater.BEST_SPEED) : null;
+        try {
+            // sync flush, so every chunk reaches the joiner right away
+            final OutputStream bodyOutput = deflater != null ? new DeflaterOutputStream(pOutput, deflater, 8192, true) : pOutput;
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(bodyOutput, 8192));
+
+            VarInts.writeVarInt(output, pWorld.getPiecesX());
+            VarInts.writeVarInt(output, pWorld.getPiecesY());
+            writeRules(output, pWorld.getRules());
+
+            VarInts.writeVarInt(output, pSequences.size());
+            for (final Map.Entry<String, Long> entry : pSequences.entrySet()) {
+                output.writeUTF(entry.getKey());
+                VarInts.writeVarLong(output, entry.getValue());
+            }
+
+            VarInts.writeVarInt(output, pNodeIds.size());
+            for (final Map.Entry<String, Integer> entry : pNodeIds.entrySet()) {
+                output.writeUTF(entry.getKey());
+                VarInts.writeVarInt(output, entry.getValue());
+            }
+
+            final Map<String, Integer> owners = new HashMap<>();
+            final List<Obstacle> obstacles = new ArrayList<>();
+            for (final Obstacle obstacle : pWorld.getObstacles()) {
+                if (!MapGenerator.isGenerated(obstacle)) {
+                    obstacles.add(obstacle);
+                }
+            }
+            writeChunks(output, CHUNK_OBSTACLES, obstacles, owners);
+            writeChunks(output, CHUNK_TANKS, pWorld.getTanks(), owners);
+            writeChunks(output, CHUNK_BULLETS, pWorld.getBullets().toBullets(), owners);
+            output.writeByte(CHUNK_END);
+            output.flush();
+            if (bodyOutput instanceof DeflaterOutputStream) {
+                ((DeflaterOutputStream) bodyOutput).finish();
+            }
+            pOutput.flush();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static Bullet readBullet(final DataInputStream pInput, final String pOwner, final World pWorld) throws IOException {
+        final long tankId = VarInts.readVarLong(pInput);
+        final BulletState state = new BulletState();
+        readState(pInput, state);
+        return new Bullet(pOwner, pWorld.getBulletW(), pWorld.getBulletH(), tankId, state);
+    }
+
+    private static Obstacle readObstacle(final DataInputStream pInput, final String pOwner) throws IOException {
+        final int width = VarInts.readVarInt(pInput);
+        final int height = VarInts.readVarInt(pInput);
+        final ObstacleState state = new ObstacleState();
+        readState(pInput, state);
+        return new Obstacle(pOwner, width, height, state);
+    }
+
+    /**
+     * Owners are written once and referenced by index afterwards.
+     */
+    private static String readOwner(final DataInputStream pInput, final List<String> pOwners) throws IOException {
+        final int index = VarInts.readVarInt(pInput);
+        if (index == pOwners.size()) {
+            pOwners.add(pInput.readUTF());
+        }
+        return pOwners.get(index);
+    }
+
+    private static Rules readRules(final DataInputStream pInput) throws IOException {
+        final Rules rules = new Rules();
+        rules._maxDamage = VarInts.readVarInt(pInput);
+        rules._spawnTimeMillis = VarInts.readVarLong(pInput);
+        rules._respawnTimeMillis = VarInts.readVarLong(pInput);
+        rules._timeMillisBetweenShots = VarInts.readVarLong(pInput);
+        rules._maxTankSendHz = VarInts.readVarInt(pInput);
+        rules._positionEpsilon = pInput.readFloat();
+        rules._rotationEpsilon = pInput.readFloat();
+        rules._keyframeIntervalMillis = VarInts.readVarLong(pInput);
+        rules._mapSeed = pInput.readLong();
+        rules._mapObstacles = VarInts.readVarInt(pInput);
+        return rules;
+    }
+
+    private static void readState(final DataInputStream pInput, final AbstractState<?> pState) throws IOException {
+        pState._id = VarInts.readVarLong(pInput);
+        pState._centerX = pInput.readFloat();
+        pState._centerY = pInput.readFloat();
+        pState._rotation = pInput.readFloat();
+    }
+
+    private static Tank readTank(final DataInputStream pInput, final String pOwner) throws IOException {
+        final int width = VarInts.readVarInt(pInput);
+        final int height = VarInts.readVarInt(pInput);
+        final String name = pInput.readUTF();
+        final TankState state = new TankState();
+        readState(pInput, state);
+        state._turretRotation = pInput.readFloat();
+        state._points = VarInts.readSignedVarInt(pInput);
+        state._damage = VarInts.readSignedVarInt(pInput);
+        final long spawnAt = VarInts.readVarLong(pInput);
+        state._spawnAtMillis = spawnAt == 0 ? null : spawnAt - 1;
+        return new Tank(pOwner, width, height, name, state);
+    }
+
+    private static void writeBullet(final DataOutputStream pOutput, final Bullet pBullet) throws IOException {
+        VarInts.writeVarLong(pOutput, pBullet.getTankId());
+        writeState(pOutput, pBullet.getState());
+    }
+
+    private static void writeChunks(final DataOutputStream pOutput, final byte pChunkType, final Collection<?> pObjects,
+                                    final Map<String, Integer> pOwners) throws IOException {
+        final Iterator<?> objectI = pObjects.iterator();
+        final List<Object> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (objectI.hasNext()) {
+            chunk.clear();
+            while (objectI.hasNext() && chunk.size() < CHUNK_SIZE) {
+                chunk.add(objectI.next());
+            }
+            pOutput.writeByte(pChunkType);
+            VarInts.writeVarInt(pOutput, chunk.size());
+            for (final Object object : chunk) {
+                if (object instanceof Obstacle) {
+                    final Obstacle obstacle = (Obstacle) object;
+                    writeOwner(pOutput, obstacle.getOwnerAddress(), pOwners);
+                    writeObstacle(pOutput, obstacle);
+                } else if (object instanceof Tank) {
+                    final Tank tank = (Tank) object;
+                    writeOwner(pOutput, tank.getOwnerAddress(), pOwners);
+                    writeTank(pOutput, tank);
+                } else {
+                    final Bullet bullet = (Bullet) object;
+                    writeOwner(pOutput, bullet.getOwnerAddress(), pOwners);
+                    writeBullet(pOutput, bullet);
+                }
+            }
+            pOutput.flush();
+        }
+    }
+
+    private static void writeObstacle(final DataOutputStream pOutput, final Obstacle pObstacle) throws IOException {
+        VarInts.writeVarInt(pOutput, pObstacle.getWidth());
+        VarInts.writeVarInt(pOutput, pObstacle.getHeight());
+        writeState(pOutput, pObstacle.getState());
+    }
+
+    private static void writeOwner(final DataOutputStream pOutput, final String pOwner, final Map<String, Integer> pOwners)
+            throws IOException {
+        final Integer index = pOwners.get(pOwner);
+        if (index != null) {
+            VarInts.writeVarInt(pOutput, index);
+        } else {
+            final int newIndex = pOwners.size();
+            pOwners.put(pOwner, newIndex);
+            VarInts.writeVarInt(pOutput, newIndex);
+            pOutput.writeUTF(pOwner);
+        }
+    }
+
+    private static void writeRules(final DataOutputStream pOutput, final Rules pRules) throws IOException {
+        VarInts.writeVarInt(pOutput, pRules._maxDamage);
+        VarInts.writeVarLong(pOutput, pRules._spawnTimeMillis);
+        VarInts.writeVarLong(pOutput, pRules._respawnTimeMillis);
+        VarInts.writeVarLong(pOutput, pRules._timeMillisBetweenShots);
+        VarInts.writeVarInt(pOutput, pRules._maxTankSendHz);
+        pOutput.writeFloat(pRules._positionEpsilon);
+        pOutput.writeFloat(pRules._rotationEpsilon);
+        VarInts.writeVarLong(pOutput, pRules._keyframeIntervalMillis);
+        pOutput.writeLong(pRules._mapSeed);
+        VarInts.writeVarInt(pOutput, pRules._mapObstacles);
+    }
+
+    private static void writeState(final DataOutputStream pOutput, final AbstractState<?> pState) throws IOException {
+        VarInts.writeVarLong(pOutput, pState._id);
+        pOutput.writeFloat(pState._centerX);
+        pOutput.writeFloat(pState._centerY);
+        pOutput.writeFloat(pState._rotation);
+    }
+
+    private static void writeTank(final DataOutputStream pOutput, final Tank pTank) throws IOException {
+        VarInts.writeVarInt(pOutput, pTank.getWidth());
+        VarInts.writeVarInt(pOutput, pTank.getHeight());
+        pOutput.writeUTF(pTank.getName());
+        final TankState state = pTank.getState();
+        writeState(pOutput, state);
+        pOutput.writeFloat(state._turretRotation);
+        VarInts.writeSignedVarInt(pOutput, state._points);
+        VarInts.writeSignedVarInt(pOutput, state._damage);
+        VarInts.writeVarLong(pOutput, state._spawnAtMillis == null ? 0 : state._spawnAtMillis + 1);
+    }
+
+    /**
+     * Result of {@link #read(InputStream)}.
+     */
+    public static final class Snapshot {
+
+        private final World _world;
+        private final Map<String, Long> _sequences;
+        private final Map<String, Integer> _nodeIds;
+
+        private Snapshot(final World pWorld, final Map<String, Long> pSequences, final Map<String, Integer> pNodeIds) {
+            super();
+
+            _world = pWorld;
+            _sequences = pSequences;
+            _nodeIds = pNodeIds;
+        }
+
+        public Map<String, Integer> getNodeIds() {
+            return _nodeIds;
+        }
+
+        /**
+         * @return last sequence number applied by the provider for the sender, or -1 if none.
+         */
+        public long getSequence(final String pSender) {
+            final Long sequence = _sequences.get(pSender);
+            return sequence == null ? -1L : sequence;
+        }
+
+        public Map<String, Long> getSequences() {
+            return _sequences;
+        }
+
+        public World getWorld() {
+            return _world;
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class ObstacleGeometryTest {
+
+    private static final float EPSILON = 1.0e-5f;
+
+    private static Obstacle createObstacle(final int pCounter, final float pCenterX, final float pCenterY) {
+        return new Obstacle("test", 20, 20, EntityIds.create(1, pCounter), pCenterX, pCenterY, 0.0f);
+    }
+
+    /**
+     * Three obstacles in a row at x 100, 200 and 300 within a 400 x 100 area of 4 x 1 cells; listed in an order differing from
+     * their position, so the first hit is not just the first one tested.
+     */
+    private static ObstacleGeometry createRow() {
+        final List<Obstacle> obstacles = Arrays.asList(createObstacle(1, 200.0f, 50.0f), createObstacle(2, 300.0f, 50.0f),
+                createObstacle(3, 100.0f, 50.0f)
+        );
+        return new ObstacleGeometry(0, obstacles, 4, 1, 100.0f, 100.0f);
+    }
+
+    @Test
+    public void firstHit() {
+        final ObstacleGeometry geometry = createRow();
+        // enters the obstacle at 100 at x 90
+        assertEquals(0.225f, geometry.intersectSegment(0.0f, 50.0f, 400.0f, 50.0f), EPSILON);
+        // enters the obstacle at 300 at x 310
+        assertEquals(0.225f, geometry.intersectSegment(400.0f, 50.0f, 0.0f, 50.0f), EPSILON);
+        // starts between the obstacles at 100 and 200, enters the latter at x 190
+        assertEquals(0.5f, geometry.intersectSegment(170.0f, 50.0f, 210.0f, 50.0f), EPSILON);
+    }
+
+    @Test
+    public void segmentStartingInside() {
+        assertEquals(0.0f, createRow().intersectSegment(200.0f, 50.0f, 400.0f, 50.0f), 0.0f);
+    }
+
+    @Test
+    public void miss() {
+        final ObstacleGeometry geometry = createRow();
+        // between two obstacles
+        assertTrue(geometry.intersectSegment(120.0f, 50.0f, 180.0f, 50.0f) < 0.0f);
+        // beside the row
+        assertTrue(geometry.intersectSegment(0.0f, 80.0f, 400.0f, 80.0f) < 0.0f);
+        // across the row between two obstacles
+        assertTrue(geometry.intersectSegment(150.0f, 0.0f, 150.0f, 100.0f) < 0.0f);
+    }
+
+    @Test
+    public void randomSegmentsAgreeWithAllObstacles() {
+        final World world = new World(40, 24);
+        final Rules rules = new Rules();
+        rules._mapSeed = 1L;
+        rules._mapObstacles = 300;
+        world.setRules(rules);
+        final ObstacleGeometry geometry = world.getObstacleGeometry();
+        final List<Obstacle> obstacles = new ArrayList<>(world.getObstacles());
+
+        final Random random = new Random(3);
+        int hits = 0;
+        for (int i = 0; i < 50000; i++) {
+            final float x0 = world.getWorldW() * random.nextFloat();
+            final float y0 = world.getWorldH() * random.nextFloat();
+            final double angle = 2.0 * Math.PI * random.nextDouble();
+            final float length = 200.0f * random.nextFloat();
+            final float x1 = x0 + (float) Math.cos(angle) * length;
+            final float y1 = y0 + (float) Math.sin(angle) * length;
+
+            float expected = -1.0f;
+            for (final Obstacle obstacle : obstacles) {
+                final float enter = obstacle.getBounds().intersectSegment(x0, y0, x1, y1);
+                if (enter >= 0.0f && (expected < 0.0f || enter < expected)) {
+                    expected = enter;
+                }
+            }
+            if (expected >= 0.0f) {
+                hits++;
+            }
+            final float actual = geometry.intersectSegment(x0, y0, x1, y1);
+            assertEquals("segment " + i, expected < 0.0f ? -1.0f : expected, actual < 0.0f ? -1.0f : actual, 0.0f);
+        }
+        // not just misses
+        assertTrue(hits > 1000);
+    }
+
+}
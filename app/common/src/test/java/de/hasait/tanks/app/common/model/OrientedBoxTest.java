@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class OrientedBoxTest {
+
+    private static final float EPSILON = 1.0e-5f;
+
+    /**
+     * Steps for sampling the segment in {@link #randomSegmentsAgreeWithSampling()}.
+     */
+    private static final int SAMPLES = 2000;
+
+    private static OrientedBox createBox(final float pRotation) {
+        final OrientedBox box = new OrientedBox();
+        box.set(50.0f, 50.0f, 20.0f, 10.0f, pRotation);
+        return box;
+    }
+
+    @Test
+    public void segmentStartingInside() {
+        final OrientedBox box = createBox(30.0f);
+        assertEquals(0.0f, box.intersectSegment(50.0f, 50.0f, 200.0f, 10.0f), 0.0f);
+        assertEquals(0.0f, box.intersectSegment(52.0f, 49.0f, 52.0f, 49.0f), 0.0f);
+    }
+
+    @Test
+    public void axisParallelSegments() {
+        final OrientedBox box = createBox(0.0f);
+        // no change in y: the y slab is decided by the start alone
+        assertEquals(0.4f, box.intersectSegment(0.0f, 50.0f, 100.0f, 50.0f), EPSILON);
+        assertEquals(0.4f, box.intersectSegment(100.0f, 52.0f, 0.0f, 52.0f), EPSILON);
+        assertTrue(box.intersectSegment(0.0f, 56.0f, 100.0f, 56.0f) < 0.0f);
+        // no change in x
+        assertEquals(0.45f, box.intersectSegment(45.0f, 0.0f, 45.0f, 100.0f), EPSILON);
+        assertTrue(box.intersectSegment(61.0f, 0.0f, 61.0f, 100.0f) < 0.0f);
+    }
+
+    @Test
+    public void rotatedBox() {
+        final OrientedBox box = createBox(90.0f);
+        assertEquals(0.45f, box.intersectSegment(0.0f, 50.0f, 100.0f, 50.0f), EPSILON);
+        assertEquals(0.4f, box.intersectSegment(50.0f, 0.0f, 50.0f, 100.0f), EPSILON);
+    }
+
+    @Test
+    public void miss() {
+        final OrientedBox box = createBox(0.0f);
+        // ends before the box
+        assertTrue(box.intersectSegment(0.0f, 50.0f, 39.0f, 50.0f) < 0.0f);
+        // starts behind the box
+        assertTrue(box.intersectSegment(61.0f, 50.0f, 100.0f, 50.0f) < 0.0f);
+        // passes a corner
+        assertTrue(box.intersectSegment(30.0f, 50.0f, 45.0f, 35.0f) < 0.0f);
+    }
+
+    @Test
+    public void randomSegmentsAgreeWithSampling() {
+        final Random random = new Random(3);
+        final OrientedBox box = new OrientedBox();
+        final OrientedBox grown = new OrientedBox();
+        for (int i = 0; i < 200000; i++) {
+            final float width = 10.0f + 30.0f * random.nextFloat();
+            final float height = 10.0f + 30.0f * random.nextFloat();
+            final float rotation = 360.0f * random.nextFloat();
+            box.set(50.0f, 50.0f, width, height, rotation);
+            grown.set(50.0f, 50.0f, width + 0.01f, height + 0.01f, rotation);
+            final float x0 = 100.0f * random.nextFloat();
+            final float y0 = 100.0f * random.nextFloat();
+            // every tenth segment is a point
+            final float x1 = i % 10 == 0 ? x0 : 100.0f * random.nextFloat();
+            final float y1 = i % 10 == 0 ? y0 : 100.0f * random.nextFloat();
+
+            float sampled = -1.0f;
+            for (int k = 0; k <= SAMPLES; k++) {
+                final float fraction = (float) k / SAMPLES;
+                if (box.contains(x0 + (x1 - x0) * fraction, y0 + (y1 - y0) * fraction)) {
+                    sampled = fraction;
+                    break;
+                }
+            }
+            final float enter = box.intersectSegment(x0, y0, x1, y1);
+            if (sampled >= 0.0f) {
+                assertEquals("segment " + i, sampled, enter, 1.0f / SAMPLES + EPSILON);
+            } else if (enter >= 0.0f) {
+                // grazing the box between two samples
+                assertTrue("segment " + i, grown.contains(x0 + (x1 - x0) * enter, y0 + (y1 - y0) * enter));
+            }
+        }
+    }
+
+}
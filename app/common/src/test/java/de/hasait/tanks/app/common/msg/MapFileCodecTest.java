@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import de.hasait.tanks.app.common.model.EntityIds;
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.World;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ */
+public class MapFileCodecTest {
+
+    @Rule
+    public final TemporaryFolder _folder = new TemporaryFolder();
+
+    private static World createWorld() {
+        final World world = new World(40, 24);
+        final Rules rules = new Rules();
+        rules._maxDamage = 7;
+        rules._spawnTimeMillis = 1L;
+        rules._respawnTimeMillis = 2L;
+        rules._timeMillisBetweenShots = 3L;
+        rules._maxTankSendHz = 15;
+        rules._positionEpsilon = 0.5f;
+        rules._rotationEpsilon = 1.5f;
+        rules._keyframeIntervalMillis = 4L;
+        rules._mapSeed = -42L;
+        rules._mapObstacles = 5;
+        world.setRules(rules);
+        return world;
+    }
+
+    private static void assertRead(final String pExpectedMessage, final Path pPath) {
+        try {
+            MapFileCodec.read(pPath);
+        } catch (final IOException pE) {
+            assertEquals(pExpectedMessage, pE.getMessage());
+            return;
+        }
+        fail("read did not fail");
+    }
+
+    /**
+     * Changing the header requires a new version.
+     */
+    @Test
+    public void headerOnly() throws IOException {
+        final Path path = _folder.newFile().toPath();
+        final World world = createWorld();
+        MapFileCodec.write(world, path);
+        // the generated obstacles are not written
+        assertEquals(80L, Files.size(path));
+
+        final MapFileCodec.MapFile mapFile = MapFileCodec.read(path);
+        assertEquals(0, mapFile.getObstacleCount());
+        assertEquals(40, mapFile.getPiecesX());
+        assertEquals(24, mapFile.getPiecesY());
+        final Rules rules = mapFile.getRules();
+        assertEquals(7, rules._maxDamage);
+        assertEquals(1L, rules._spawnTimeMillis);
+        assertEquals(2L, rules._respawnTimeMillis);
+        assertEquals(3L, rules._timeMillisBetweenShots);
+        assertEquals(15, rules._maxTankSendHz);
+        assertEquals(0.5f, rules._positionEpsilon, 0.0f);
+        assertEquals(1.5f, rules._rotationEpsilon, 0.0f);
+        assertEquals(4L, rules._keyframeIntervalMillis);
+        assertEquals(-42L, rules._mapSeed);
+        assertEquals(5, rules._mapObstacles);
+    }
+
+    @Test
+    public void obstacles() throws IOException {
+        final Path path = _folder.newFile().toPath();
+        final World world = createWorld();
+        world.addObstacles(Arrays.asList(new Obstacle("node", 40, 0xFFFF, EntityIds.create(1, 1), 10.5f, 20.25f, 30.0f),
+                new Obstacle("node", 1, 2, EntityIds.create(1, 2), -1.0f, 1000.0f, 359.5f)
+        ));
+        MapFileCodec.write(world, path);
+        assertEquals(80L + 2 * 16, Files.size(path));
+
+        final MapFileCodec.MapFile mapFile = MapFileCodec.read(path);
+        assertEquals(2, mapFile.getObstacleCount());
+        // in the order of the obstacles of the world, which is not defined
+        final int first = mapFile.getObstacleWidth(0) == 40 ? 0 : 1;
+        assertEquals(40, mapFile.getObstacleWidth(first));
+        assertEquals(0xFFFF, mapFile.getObstacleHeight(first));
+        assertEquals(10.5f, mapFile.getObstacleCenterX(first), 0.0f);
+        assertEquals(20.25f, mapFile.getObstacleCenterY(first), 0.0f);
+        assertEquals(30.0f, mapFile.getObstacleRotation(first), 0.0f);
+        final int second = 1 - first;
+        assertEquals(1, mapFile.getObstacleWidth(second));
+        assertEquals(2, mapFile.getObstacleHeight(second));
+        assertEquals(-1.0f, mapFile.getObstacleCenterX(second), 0.0f);
+        assertEquals(1000.0f, mapFile.getObstacleCenterY(second), 0.0f);
+        assertEquals(359.5f, mapFile.getObstacleRotation(second), 0.0f);
+    }
+
+    @Test
+    public void obstacleTooLarge() throws IOException {
+        final Path path = _folder.newFile().toPath();
+        final World world = createWorld();
+        world.addObstacle(new Obstacle("node", 0x10000, 1, EntityIds.create(1, 1), 0.0f, 0.0f, 0.0f));
+        try {
+            MapFileCodec.write(world, path);
+        } catch (final IOException pE) {
+            assertTrue(pE.getMessage().startsWith("Obstacle too large"));
+            return;
+        }
+        fail("write did not fail");
+    }
+
+    @Test
+    public void sizeNotMatchingObstacleCount() throws IOException {
+        final Path path = _folder.newFile().toPath();
+        final World world = createWorld();
+        world.addObstacle(new Obstacle("node", 10, 10, EntityIds.create(1, 1), 0.0f, 0.0f, 0.0f));
+        MapFileCodec.write(world, path);
+        final byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertRead("Map file size does not match its 1 obstacles", path);
+
+        Files.write(path, new byte[1], StandardOpenOption.APPEND);
+        Files.write(path, new byte[1], StandardOpenOption.APPEND);
+        assertRead("Map file size does not match its 1 obstacles", path);
+    }
+
+    @Test
+    public void notAMapFile() throws IOException {
+        final Path path = _folder.newFile().toPath();
+        assertRead("Not a map file", path);
+
+        Files.write(path, new byte[80]);
+        assertRead("Not a map file", path);
+    }
+
+}
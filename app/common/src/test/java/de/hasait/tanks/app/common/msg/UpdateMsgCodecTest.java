@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import de.hasait.tanks.app.common.model.TankState;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class UpdateMsgCodecTest {
+
+    private static void assertTankState(final TankState pExpected, final TankState pActual) {
+        assertEquals(pExpected._id, pActual._id);
+        assertEquals(pExpected._centerX, pActual._centerX, 0.0f);
+        assertEquals(pExpected._centerY, pActual._centerY, 0.0f);
+        assertEquals(pExpected._rotation, pActual._rotation, 0.0f);
+        assertEquals(pExpected._turretRotation, pActual._turretRotation, 0.0f);
+        assertEquals(pExpected._points, pActual._points);
+        assertEquals(pExpected._damage, pActual._damage);
+        assertEquals(pExpected._spawnAtMillis, pActual._spawnAtMillis);
+    }
+
+    /**
+     * Values exactly representable after quantization.
+     */
+    private static TankState createTankState(final long pId, final float pCenterX) {
+        final TankState state = new TankState();
+        state._id = pId;
+        state._centerX = pCenterX;
+        state._centerY = 20.0625f;
+        state._rotation = 90.0f;
+        state._turretRotation = 180.0f;
+        state._points = 3;
+        state._damage = -1;
+        state._spawnAtMillis = 1234L;
+        return state;
+    }
+
+    private static UpdateMsg createUpdateMsg(final long pSequence, final TankState... pTankStates) {
+        final UpdateMsg updateMsg = new UpdateMsg();
+        updateMsg._sequence = pSequence;
+        for (final TankState tankState : pTankStates) {
+            updateMsg._tanks.add(tankState);
+        }
+        return updateMsg;
+    }
+
+    private static UpdateMsg decode(final UpdateMsgCodec pCodec, final byte[] pEncoded) throws IOException {
+        assertTrue(UpdateMsgCodec.isEncoded(pEncoded, 0, pEncoded.length));
+        return pCodec.decode(pEncoded, 0, pEncoded.length);
+    }
+
+    @Test
+    public void deltaAfterKeyframe() throws IOException {
+        final UpdateMsgCodec sender = new UpdateMsgCodec();
+        final UpdateMsgCodec receiver = new UpdateMsgCodec();
+
+        final TankState keyframeState = createTankState(7L, 100.5f);
+        final byte[] keyframe = sender.encode(createUpdateMsg(1L, keyframeState));
+        final UpdateMsg decodedKeyframe = decode(receiver, keyframe);
+        assertEquals(1L, decodedKeyframe._sequence);
+        assertEquals(1, decodedKeyframe._tanks.size());
+        assertTankState(keyframeState, decodedKeyframe._tanks.get(0));
+
+        final TankState deltaState = createTankState(7L, 101.0f);
+        deltaState._spawnAtMillis = null;
+        final byte[] delta = sender.encode(createUpdateMsg(2L, deltaState));
+        assertTrue(delta.length < keyframe.length);
+        final UpdateMsg decodedDelta = decode(receiver, delta);
+        assertEquals(2L, decodedDelta._sequence);
+        assertEquals(1, decodedDelta._tanks.size());
+        assertTankState(deltaState, decodedDelta._tanks.get(0));
+    }
+
+    @Test
+    public void deltaWithoutBaselineIsDropped() throws IOException {
+        final UpdateMsgCodec sender = new UpdateMsgCodec();
+        sender.encode(createUpdateMsg(1L, createTankState(7L, 100.0f)));
+        final UpdateMsg updateMsg = createUpdateMsg(2L, createTankState(7L, 110.0f));
+        updateMsg._removedBullets.add(11L);
+        final byte[] delta = sender.encode(updateMsg);
+
+        final UpdateMsg decoded = decode(new UpdateMsgCodec(), delta);
+        assertTrue(decoded._tanks.isEmpty());
+        assertEquals(updateMsg._removedBullets, decoded._removedBullets);
+    }
+
+    @Test
+    public void idsRoundTrip() throws IOException {
+        final UpdateMsg updateMsg = createUpdateMsg(5L);
+        updateMsg._removedBullets.add(1L);
+        updateMsg._removedBullets.add(Long.MAX_VALUE);
+        updateMsg._removedTanks.add(2L);
+        updateMsg._incrementDamage.add(3L);
+        updateMsg._incrementDamage.add(3L);
+
+        final UpdateMsg decoded = decode(new UpdateMsgCodec(), new UpdateMsgCodec().encode(updateMsg));
+        assertEquals(5L, decoded._sequence);
+        assertEquals(updateMsg._removedBullets, decoded._removedBullets);
+        assertEquals(updateMsg._removedTanks, decoded._removedTanks);
+        assertEquals(updateMsg._incrementDamage, decoded._incrementDamage);
+    }
+
+    @Test
+    public void resetBaselinesSendsKeyframe() throws IOException {
+        final UpdateMsgCodec sender = new UpdateMsgCodec();
+        sender.encode(createUpdateMsg(1L, createTankState(7L, 100.0f)));
+        sender.resetBaselines();
+        final TankState state = createTankState(7L, 110.0f);
+        final byte[] keyframe = sender.encode(createUpdateMsg(2L, state));
+
+        final UpdateMsg decoded = decode(new UpdateMsgCodec(), keyframe);
+        assertEquals(1, decoded._tanks.size());
+        assertTankState(state, decoded._tanks.get(0));
+    }
+
+    @Test
+    public void splitIntoPartsWithinMaxLength() throws IOException {
+        final int maxLength = 100;
+        final UpdateMsg updateMsg = createUpdateMsg(9L);
+        for (int i = 0; i < 50; i++) {
+            updateMsg._tanks.add(createTankState(1000L + i, 16.0f * i));
+        }
+        for (long id = 0; id < 40; id++) {
+            updateMsg._removedBullets.add(id << 40);
+        }
+        updateMsg._removedTanks.add(5000L);
+        updateMsg._incrementDamage.add(1001L);
+
+        final List<byte[]> parts = new UpdateMsgCodec().encode(updateMsg, maxLength);
+        assertTrue(parts.size() > 1);
+
+        final UpdateMsgCodec receiver = new UpdateMsgCodec();
+        final UpdateMsg joined = new UpdateMsg();
+        for (final byte[] part : parts) {
+            assertTrue(part.length <= maxLength);
+            final UpdateMsg decoded = decode(receiver, part);
+            assertEquals(9L, decoded._sequence);
+            joined._tanks.addAll(decoded._tanks);
+            joined._removedBullets.addAll(decoded._removedBullets);
+            joined._removedTanks.addAll(decoded._removedTanks);
+            joined._incrementDamage.addAll(decoded._incrementDamage);
+        }
+        assertEquals(updateMsg._tanks.size(), joined._tanks.size());
+        for (int i = 0; i < updateMsg._tanks.size(); i++) {
+            assertTankState(updateMsg._tanks.get(i), joined._tanks.get(i));
+        }
+        assertEquals(updateMsg._removedBullets, joined._removedBullets);
+        assertEquals(updateMsg._removedTanks, joined._removedTanks);
+        assertEquals(updateMsg._incrementDamage, joined._incrementDamage);
+    }
+
+    @Test
+    public void unsplitMessageIsSinglePart() throws IOException {
+        final TankState state = createTankState(1L, 0.0f);
+        state._spawnAtMillis = null;
+        final List<byte[]> parts = new UpdateMsgCodec().encode(createUpdateMsg(1L, state), 1200);
+        assertEquals(1, parts.size());
+        final UpdateMsg decoded = decode(new UpdateMsgCodec(), parts.get(0));
+        assertTankState(state, decoded._tanks.get(0));
+        assertNull(decoded._tanks.get(0)._spawnAtMillis);
+    }
+
+}
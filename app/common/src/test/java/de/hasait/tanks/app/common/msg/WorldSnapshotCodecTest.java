@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.common.msg;
+
+import de.hasait.tanks.app.common.model.AbstractGameObject;
+import de.hasait.tanks.app.common.model.Bullet;
+import de.hasait.tanks.app.common.model.EntityIds;
+import de.hasait.tanks.app.common.model.MapGenerator;
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.Tank;
+import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.app.common.model.World;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ */
+public class WorldSnapshotCodecTest {
+
+    private static final String OWNER_A = "node-a";
+    private static final String OWNER_B = "node-b";
+
+    /**
+     * More objects per type than fit into one chunk.
+     */
+    private static final int COUNT = 300;
+
+    private static World createWorld() {
+        final World world = new World(40, 24);
+        final Rules rules = new Rules();
+        rules._maxDamage = 7;
+        rules._spawnTimeMillis = 1L;
+        rules._respawnTimeMillis = 2L;
+        rules._timeMillisBetweenShots = 3L;
+        rules._maxTankSendHz = 15;
+        rules._positionEpsilon = 0.5f;
+        rules._rotationEpsilon = 1.5f;
+        rules._keyframeIntervalMillis = 4L;
+        rules._mapSeed = -42L;
+        rules._mapObstacles = 5;
+        world.setRules(rules);
+
+        final List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            final String owner = i % 2 == 0 ? OWNER_A : OWNER_B;
+            obstacles.add(new Obstacle(owner, 32 + i, 40, EntityIds.create(2, i + 1), i * 3.5f, i * 1.25f, i));
+            final Tank tank = new Tank(owner, 32, 32, "Tank" + i, EntityIds.create(3, i + 1), 0L);
+            final TankState state = tank.getState().clone();
+            state._centerX = i;
+            state._centerY = 2.0f * i;
+            state._rotation = 3.0f * i;
+            state._turretRotation = -i;
+            state._points = i - 10;
+            state._damage = i % 5;
+            state._spawnAtMillis = i % 3 == 0 ? null : 1000L + i;
+            tank.apply(state);
+            world.addTank(tank);
+            world.addBullet(new Bullet(owner, world.getBulletW(), world.getBulletH(), tank.getId(), EntityIds.create(4, i + 1), i, -i, 90.0f));
+        }
+        world.addObstacles(obstacles);
+        return world;
+    }
+
+    private static WorldSnapshotCodec.Snapshot roundTrip(final World pWorld, final Map<String, Long> pSequences,
+                                                         final Map<String, Integer> pNodeIds, final boolean pDeflate)
+            throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WorldSnapshotCodec.write(pWorld, pSequences, pNodeIds, pDeflate, output);
+        final byte[] bytes = output.toByteArray();
+        assertEquals(WorldSnapshotCodec.MAGIC, bytes[0]);
+        return WorldSnapshotCodec.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertWorld(final World pExpected, final World pActual) {
+        assertEquals(pExpected.getPiecesX(), pActual.getPiecesX());
+        assertEquals(pExpected.getPiecesY(), pActual.getPiecesY());
+
+        final Rules expectedRules = pExpected.getRules();
+        final Rules actualRules = pActual.getRules();
+        assertEquals(expectedRules._maxDamage, actualRules._maxDamage);
+        assertEquals(expectedRules._spawnTimeMillis, actualRules._spawnTimeMillis);
+        assertEquals(expectedRules._respawnTimeMillis, actualRules._respawnTimeMillis);
+        assertEquals(expectedRules._timeMillisBetweenShots, actualRules._timeMillisBetweenShots);
+        assertEquals(expectedRules._maxTankSendHz, actualRules._maxTankSendHz);
+        assertEquals(expectedRules._positionEpsilon, actualRules._positionEpsilon, 0.0f);
+        assertEquals(expectedRules._rotationEpsilon, actualRules._rotationEpsilon, 0.0f);
+        assertEquals(expectedRules._keyframeIntervalMillis, actualRules._keyframeIntervalMillis);
+        assertEquals(expectedRules._mapSeed, actualRules._mapSeed);
+        assertEquals(expectedRules._mapObstacles, actualRules._mapObstacles);
+
+        final List<Obstacle> expectedObstacles = sorted(pExpected.getObstacles());
+        final List<Obstacle> actualObstacles = sorted(pActual.getObstacles());
+        assertEquals(expectedObstacles.size(), actualObstacles.size());
+        for (int i = 0; i < expectedObstacles.size(); i++) {
+            final Obstacle expected = expectedObstacles.get(i);
+            final Obstacle actual = actualObstacles.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getOwnerAddress(), actual.getOwnerAddress());
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getHeight(), actual.getHeight());
+            assertEquals(expected.getState()._centerX, actual.getState()._centerX, 0.0f);
+            assertEquals(expected.getState()._centerY, actual.getState()._centerY, 0.0f);
+            assertEquals(expected.getState()._rotation, actual.getState()._rotation, 0.0f);
+        }
+
+        final List<Tank> expectedTanks = sorted(pExpected.getTanks());
+        final List<Tank> actualTanks = sorted(pActual.getTanks());
+        assertEquals(expectedTanks.size(), actualTanks.size());
+        for (int i = 0; i < expectedTanks.size(); i++) {
+            final Tank expected = expectedTanks.get(i);
+            final Tank actual = actualTanks.get(i);
+            assertEquals(expected.getOwnerAddress(), actual.getOwnerAddress());
+            assertEquals(expected.getName(), actual.getName());
+            final TankState expectedState = expected.getState();
+            final TankState actualState = actual.getState();
+            assertEquals(expectedState._id, actualState._id);
+            assertEquals(expectedState._centerX, actualState._centerX, 0.0f);
+            assertEquals(expectedState._centerY, actualState._centerY, 0.0f);
+            assertEquals(expectedState._rotation, actualState._rotation, 0.0f);
+            assertEquals(expectedState._turretRotation, actualState._turretRotation, 0.0f);
+            assertEquals(expectedState._points, actualState._points);
+            assertEquals(expectedState._damage, actualState._damage);
+            assertEquals(expectedState._spawnAtMillis, actualState._spawnAtMillis);
+        }
+
+        final List<Bullet> expectedBullets = sorted(pExpected.getBullets().toBullets());
+        final List<Bullet> actualBullets = sorted(pActual.getBullets().toBullets());
+        assertEquals(expectedBullets.size(), actualBullets.size());
+        for (int i = 0; i < expectedBullets.size(); i++) {
+            final Bullet expected = expectedBullets.get(i);
+            final Bullet actual = actualBullets.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getOwnerAddress(), actual.getOwnerAddress());
+            assertEquals(expected.getTankId(), actual.getTankId());
+            assertEquals(expected.getState()._centerX, actual.getState()._centerX, 0.0f);
+            assertEquals(expected.getState()._centerY, actual.getState()._centerY, 0.0f);
+            assertEquals(expected.getState()._rotation, actual.getState()._rotation, 0.0f);
+        }
+    }
+
+    private static <O extends AbstractGameObject<?>> List<O> sorted(final Collection<O> pObjects) {
+        final List<O> objects = new ArrayList<>(pObjects);
+        objects.sort(Comparator.comparingLong(O::getId));
+        return objects;
+    }
+
+    @Test
+    public void deflatedRoundTrip() throws IOException {
+        final World world = createWorld();
+        assertWorld(world, roundTrip(world, new HashMap<>(), new HashMap<>(), true).getWorld());
+    }
+
+    @Test
+    public void plainRoundTrip() throws IOException {
+        final World world = createWorld();
+        assertWorld(world, roundTrip(world, new HashMap<>(), new HashMap<>(), false).getWorld());
+    }
+
+    @Test
+    public void generatedObstaclesAreNotWritten() throws IOException {
+        final World world = createWorld();
+        final ByteArrayOutputStream withGenerated = new ByteArrayOutputStream();
+        WorldSnapshotCodec.write(world, new HashMap<>(), new HashMap<>(), false, withGenerated);
+
+        final World withoutMap = createWorld();
+        final Rules rules = withoutMap.getRules();
+        rules._mapObstacles = 0;
+        withoutMap.setRules(rules);
+        final ByteArrayOutputStream withoutGenerated = new ByteArrayOutputStream();
+        WorldSnapshotCodec.write(withoutMap, new HashMap<>(), new HashMap<>(), false, withoutGenerated);
+
+        // same size: the five generated obstacles are regenerated from the rules by the reader
+        assertEquals(withoutGenerated.size(), withGenerated.size());
+        final World read = WorldSnapshotCodec.read(new ByteArrayInputStream(withGenerated.toByteArray())).getWorld();
+        assertEquals(5, read.getObstacles().stream().filter(MapGenerator::isGenerated).count());
+    }
+
+    @Test
+    public void ownersAreInterned() throws IOException {
+        final World read = roundTrip(createWorld(), new HashMap<>(), new HashMap<>(), true).getWorld();
+        final List<Tank> tanks = sorted(read.getTanks());
+        final List<Obstacle> obstacles = sorted(read.getObstacles());
+        assertSame(tanks.get(0).getOwnerAddress(), tanks.get(2).getOwnerAddress());
+        assertSame(tanks.get(1).getOwnerAddress(), obstacles.get(obstacles.size() - 1).getOwnerAddress());
+    }
+
+    @Test
+    public void sequencesAndNodeIds() throws IOException {
+        final Map<String, Long> sequences = new HashMap<>();
+        sequences.put(OWNER_A, 17L);
+        sequences.put(OWNER_B, Long.MAX_VALUE);
+        final Map<String, Integer> nodeIds = new HashMap<>();
+        nodeIds.put(OWNER_A, 1);
+        nodeIds.put(OWNER_B, (1 << EntityIds.NODE_BITS) - 1);
+
+        final WorldSnapshotCodec.Snapshot snapshot = roundTrip(createWorld(), sequences, nodeIds, true);
+        assertEquals(sequences, snapshot.getSequences());
+        assertEquals(17L, snapshot.getSequence(OWNER_A));
+        assertEquals(-1L, snapshot.getSequence("unknown"));
+        assertEquals(nodeIds, snapshot.getNodeIds());
+    }
+
+    @Test
+    public void emptyWorld() throws IOException {
+        final World world = new World(3, 2);
+        final WorldSnapshotCodec.Snapshot snapshot = roundTrip(world, new HashMap<>(), new HashMap<>(), false);
+        assertWorld(world, snapshot.getWorld());
+        assertTrue(snapshot.getSequences().isEmpty());
+    }
+
+    /**
+     * Changing the format requires a new version, which must be changed here as well.
+     */
+    @Test
+    public void header() throws IOException {
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        WorldSnapshotCodec.write(new World(1, 1), new HashMap<>(), new HashMap<>(), false, plain);
+        assertArrayEquals(new byte[]{WorldSnapshotCodec.MAGIC, 4, 0}, Arrays.copyOf(plain.toByteArray(), 3));
+
+        final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        WorldSnapshotCodec.write(new World(1, 1), new HashMap<>(), new HashMap<>(), true, deflated);
+        assertArrayEquals(new byte[]{WorldSnapshotCodec.MAGIC, 4, 1}, Arrays.copyOf(deflated.toByteArray(), 3));
+    }
+
+    @Test
+    public void otherVersionIsRejected() {
+        final byte[] bytes = {WorldSnapshotCodec.MAGIC, 3, 0};
+        try {
+            WorldSnapshotCodec.read(new ByteArrayInputStream(bytes));
+        } catch (final IOException pE) {
+            assertTrue(pE.getMessage().contains("version"));
+            return;
+        }
+        fail("read did not fail");
+    }
+
+    @Test
+    public void otherMagicIsRejected() {
+        try {
+            WorldSnapshotCodec.read(new ByteArrayInputStream(new byte[]{0, 4, 0}));
+        } catch (final IOException pE) {
+            assertTrue(pE.getMessage().contains("Not a world snapshot"));
+            return;
+        }
+        fail("read did not fail");
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.server;
+
+import de.hasait.tanks.app.common.model.PlayerConfig;
+import de.hasait.tanks.util.common.input.ScriptedAction;
+
+import java.util.Random;
+
+/**
+ * Player configurations driven by random but reproducible scripts: drive forward, turn now and then, rotate the turret and fire
+ * in bursts.
+ */
+public final class BotPlayers {
+
+    /**
+     * Updates until a script starts over.
+     */
+    private static final int SCRIPT_LENGTH = 3600;
+    private static final int MIN_SEGMENT_LENGTH = 10;
+    private static final int MAX_SEGMENT_LENGTH = 120;
+
+    private BotPlayers() {
+        super();
+    }
+
+    public static PlayerConfig create(final String pName, final Random pRandom) {
+        final PlayerConfig playerConfig = new PlayerConfig();
+        playerConfig.setName(pName);
+        final float[] moveForward = new float[SCRIPT_LENGTH];
+        final float[] moveBackward = new float[SCRIPT_LENGTH];
+        fillExclusive(pRandom, 0.8f, 0.1f, moveForward, moveBackward);
+        playerConfig.setMoveForward(new ScriptedAction(moveForward));
+        playerConfig.setMoveBackward(new ScriptedAction(moveBackward));
+        final float[] rotateLeft = new float[SCRIPT_LENGTH];
+        final float[] rotateRight = new float[SCRIPT_LENGTH];
+        fillExclusive(pRandom, 0.2f, 0.2f, rotateLeft, rotateRight);
+        playerConfig.setRotateLeft(new ScriptedAction(rotateLeft));
+        playerConfig.setRotateRight(new ScriptedAction(rotateRight));
+        final float[] turretRotateLeft = new float[SCRIPT_LENGTH];
+        final float[] turretRotateRight = new float[SCRIPT_LENGTH];
+        fillExclusive(pRandom, 0.3f, 0.3f, turretRotateLeft, turretRotateRight);
+        playerConfig.setTurrentRotateLeft(new ScriptedAction(turretRotateLeft));
+        playerConfig.setTurrentRotateRight(new ScriptedAction(turretRotateRight));
+        final float[] fire = new float[SCRIPT_LENGTH];
+        fillExclusive(pRandom, 0.3f, 0.0f, fire, new float[SCRIPT_LENGTH]);
+        playerConfig.setFire(new ScriptedAction(fire));
+        return playerConfig;
+    }
+
+    /**
+     * Fill both scripts segment by segment, each segment is full state in at most one of them.
+     */
+    private static void fillExclusive(final Random pRandom, final float pFirstProbability, final float pSecondProbability,
+                                      final float[] pFirst, final float[] pSecond) {
+        int index = 0;
+        while (index < pFirst.length) {
+            final int end = Math.min(pFirst.length, index + MIN_SEGMENT_LENGTH + pRandom.nextInt(MAX_SEGMENT_LENGTH - MIN_SEGMENT_LENGTH));
+            final float choice = pRandom.nextFloat();
+            final float[] active = choice < pFirstProbability ? pFirst : choice < pFirstProbability + pSecondProbability ? pSecond : null;
+            for (; index < end; index++) {
+                if (active != null) {
+                    active[index] = 1.0f;
+                }
+            }
+        }
+    }
+
+}
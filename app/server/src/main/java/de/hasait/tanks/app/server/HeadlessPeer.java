@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.server;
+
+import com.badlogic.gdx.utils.TimeUtils;
+import de.hasait.tanks.app.common.TanksLogic;
+import de.hasait.tanks.app.common.model.DistributedWorld;
+import de.hasait.tanks.app.common.model.GameConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A peer of one room without graphics and audio; the simulation is driven at a fixed rate by a scheduler shared with other rooms.
+ * <p>
+ * It is not authoritative: like every other peer it simulates only its own tanks (a dedicated server has none) and hits are
+ * decided by the owner of the bullet. It keeps the room and its world alive while players come and go.
+ */
+public class HeadlessPeer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeadlessPeer.class);
+
+    private final GameConfig _config;
+
+    private final DistributedWorld _world;
+    private final TanksLogic _tanksLogic;
+
+    private ScheduledFuture<?> _tick;
+
+    public HeadlessPeer(final GameConfig pConfig) {
+        super();
+
+        _config = pConfig;
+
+        _world = new DistributedWorld();
+        _world.setWireFormat(_config.getWireFormat());
+        _world.setMaxUpdateMsgBytes(_config.getMaxUpdateMsgBytes());
+        _world.setInterestRadiusPieces(_config.getInterestRadiusPieces());
+        _tanksLogic = new TanksLogic(_world, () -> {
+            // no audio
+        });
+        _tanksLogic.setSendHz(_config.getSendHz());
+    }
+
+    public String getRoomName() {
+        return _config.getRoomName();
+    }
+
+    public DistributedWorld getWorld() {
+        return _world;
+    }
+
+    public void start(final ScheduledExecutorService pScheduler) {
+        if (_tick != null) {
+            throw new IllegalStateException("Already started");
+        }
+
+        final String mapFile = _config.getMapFile();
+        _world.connect(_config.getRoomName(), _config.getNetworkStack(), _config.getNetworkSystemProperties(), _config.getWishPiecesX(),
+                _config.getWishPiecesY(), mapFile != null ? Paths.get(mapFile) : null
+        );
+        // a map brings its own rules
+        if (_world.isRoomCreator() && mapFile == null) {
+            // the creator defines the rules of the room, the obstacles by their map seed
+            _world.networkSend(_config.getRules());
+        }
+
+        final int tickHz = _config.getTickHz();
+        final long periodNanos = TimeUnit.SECONDS.toNanos(1) / tickHz;
+        final float deltaTimeSeconds = 1.0f / tickHz;
+        _tick = pScheduler.scheduleAtFixedRate(() -> tick(deltaTimeSeconds), periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        LOG.info("Room {} started (creator: {}, {}x{} pieces, {} Hz)", getRoomName(), _world.isRoomCreator(), _world.getWorld().getPiecesX(),
+                _world.getWorld().getPiecesY(), tickHz
+        );
+    }
+
+    public void stop() {
+        if (_tick != null) {
+            _tick.cancel(false);
+            _tick = null;
+        }
+        _world.dispose();
+        LOG.info("Room {} stopped", getRoomName());
+    }
+
+    private void tick(final float pDeltaTimeSeconds) {
+        try {
+            _tanksLogic.update(TimeUtils.millis(), pDeltaTimeSeconds);
+        } catch (final RuntimeException pE) {
+            // an exception would silently cancel the scheduled tick
+            LOG.error("Tick failed for room " + getRoomName(), pE);
+        }
+    }
+
+}
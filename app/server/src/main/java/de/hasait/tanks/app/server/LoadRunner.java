@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.server;
+
+import de.hasait.tanks.app.common.metrics.TanksMetrics;
+import de.hasait.tanks.app.common.model.GameConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test: many peers of one room in this JVM, each with scripted bots, connected by the in-memory <code>loopback</code> stack;
+ * reports tick latency and traffic per peer after the given duration.
+ * <p>
+ * Usage: <code>LoadRunner [--peers 4] [--bots 8] [--seconds 30] [--seed 4711] [--stack loopback] [--pieces 40x24] [--hz 60]
+ * [--send-hz 30] [--obstacles 20] [--interest n] [--threads n]</code>
+ * <p>
+ * The seed makes the map and the scripts of the bots reproducible, not a run: ticks, spawn positions and message order depend
+ * on the timing of the threads.
+ */
+public class LoadRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadRunner.class);
+
+    private static final String ROOM_NAME = "Load";
+
+    public static void main(final String[] pArgs) throws Exception {
+        int peerCount = 4;
+        int botsPerPeer = 8;
+        int seconds = 30;
+        long seed = 4711L;
+        String netStack = "loopback";
+        int piecesX = 40;
+        int piecesY = 24;
+        int tickHz = 60;
+        int sendHz = 30;
+        int obstacleCount = 20;
+        int interestRadiusPieces = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < pArgs.length; i++) {
+            final String arg = pArgs[i];
+            switch (arg) {
+                case "--peers":
+                    peerCount = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--bots":
+                    botsPerPeer = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(pArgs[++i]);
+                    break;
+                case "--stack":
+                    netStack = pArgs[++i];
+                    break;
+                case "--pieces":
+                    final String[] pieces = pArgs[++i].split("x");
+                    piecesX = Integer.parseInt(pieces[0]);
+                    piecesY = Integer.parseInt(pieces[1]);
+                    break;
+                case "--hz":
+                    tickHz = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--send-hz":
+                    sendHz = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--obstacles":
+                    obstacleCount = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--interest":
+                    interestRadiusPieces = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(pArgs[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(threads);
+        final List<HeadlessPeer> peers = new ArrayList<>();
+        for (int peer = 0; peer < peerCount; peer++) {
+            final GameConfig config = new GameConfig();
+            config.setRoomName(ROOM_NAME);
+            config.setNetworkStack(netStack);
+            config.setWishPiecesX(piecesX);
+            config.setWishPiecesY(piecesY);
+            config.setTickHz(tickHz);
+            config.setSendHz(sendHz);
+            config.setInterestRadiusPieces(interestRadiusPieces);
+            config.getRules()._mapSeed = seed;
+            config.getRules()._mapObstacles = obstacleCount;
+
+            final HeadlessPeer headlessPeer = new HeadlessPeer(config);
+            // one after the other, so the first peer creates the room and the others receive its state
+            headlessPeer.start(scheduler);
+            peers.add(headlessPeer);
+            final Random random = new Random(seed + peer);
+            for (int bot = 0; bot < botsPerPeer; bot++) {
+                headlessPeer.getWorld().createTank(BotPlayers.create("Bot" + peer + "." + bot, random));
+            }
+        }
+
+        final long[] sentBytesAtStart = new long[peerCount];
+        final long[] receivedBytesAtStart = new long[peerCount];
+        final long[] sentMessagesAtStart = new long[peerCount];
+        final long[] receivedMessagesAtStart = new long[peerCount];
+        for (int peer = 0; peer < peerCount; peer++) {
+            // the joins are not part of the measurement
+            final TanksMetrics metrics = peers.get(peer).getWorld().getMetrics();
+            metrics.reset();
+            sentBytesAtStart[peer] = sum(metrics.getSentBytes());
+            receivedBytesAtStart[peer] = sum(metrics.getReceivedBytes());
+            sentMessagesAtStart[peer] = sum(metrics.getSentMessages());
+            receivedMessagesAtStart[peer] = sum(metrics.getReceivedMessages());
+        }
+        LOG.info("Running {} peer(s) with {} bot(s) each for {}s", peerCount, botsPerPeer, seconds);
+        TimeUnit.SECONDS.sleep(seconds);
+
+        for (int peer = 0; peer < peerCount; peer++) {
+            final TanksMetrics metrics = peers.get(peer).getWorld().getMetrics();
+            LOG.info("Peer {}: tanks {}, bullets {}, tick mean {} ms, p99 {} ms, max {} ms, sent {} msg/s {} B/s, received {} msg/s {} B/s",
+                    peer, metrics.getTanks(), metrics.getBullets(), String.format("%.3f", metrics.getTickMeanMillis()),
+                    String.format("%.3f", metrics.getTickP99Millis()), String.format("%.3f", metrics.getTickMaxMillis()),
+                    (sum(metrics.getSentMessages()) - sentMessagesAtStart[peer]) / seconds,
+                    (sum(metrics.getSentBytes()) - sentBytesAtStart[peer]) / seconds,
+                    (sum(metrics.getReceivedMessages()) - receivedMessagesAtStart[peer]) / seconds,
+                    (sum(metrics.getReceivedBytes()) - receivedBytesAtStart[peer]) / seconds
+            );
+        }
+
+        peers.forEach(HeadlessPeer::stop);
+        scheduler.shutdown();
+    }
+
+    private static long sum(final Map<String, Long> pTotals) {
+        return pTotals.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.app.server;
+
+import de.hasait.tanks.app.common.model.GameConfig;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.msg.WireFormat;
+import de.hasait.tanks.util.common.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Dedicated server keeping any number of rooms open in one JVM without graphics, one {@link HeadlessPeer} per room.
+ * <p>
+ * Usage: <code>Main [--stack udp|tcp] [--hosts host[port],...] [--pieces 40x24] [--hz 60] [--send-hz 30] [--obstacles 20] [--map-seed n]
+ * [--map file] [--threads n] [--wire binary|java] [--max-tank-hz n] [--position-epsilon f] [--rotation-epsilon f] [--keyframe-millis n] room...</code>
+ */
+public class Main {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Main.class);
+
+    public static void main(final String[] pArgs) throws Exception {
+        String netStack = "udp";
+        String netOptions = null;
+        int piecesX = 40;
+        int piecesY = 24;
+        int tickHz = 60;
+        int sendHz = 30;
+        int obstacleCount = 20;
+        Long mapSeed = null;
+        String mapFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        WireFormat wireFormat = WireFormat.BINARY;
+        final Rules defaultRules = new Rules();
+        int maxTankSendHz = defaultRules._maxTankSendHz;
+        float positionEpsilon = defaultRules._positionEpsilon;
+        float rotationEpsilon = defaultRules._rotationEpsilon;
+        long keyframeIntervalMillis = defaultRules._keyframeIntervalMillis;
+        final List<String> roomNames = new ArrayList<>();
+
+        for (int i = 0; i < pArgs.length; i++) {
+            final String arg = pArgs[i];
+            switch (arg) {
+                case "--stack":
+                    netStack = pArgs[++i];
+                    break;
+                case "--hosts":
+                    netOptions = pArgs[++i];
+                    break;
+                case "--pieces":
+                    final String[] pieces = pArgs[++i].split("x");
+                    piecesX = Integer.parseInt(pieces[0]);
+                    piecesY = Integer.parseInt(pieces[1]);
+                    break;
+                case "--hz":
+                    tickHz = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--send-hz":
+                    sendHz = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--obstacles":
+                    obstacleCount = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--map-seed":
+                    mapSeed = Long.parseLong(pArgs[++i]);
+                    break;
+                case "--map":
+                    mapFile = pArgs[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--wire":
+                    wireFormat = WireFormat.valueOf(pArgs[++i].toUpperCase());
+                    break;
+                case "--max-tank-hz":
+                    maxTankSendHz = Integer.parseInt(pArgs[++i]);
+                    break;
+                case "--position-epsilon":
+                    positionEpsilon = Float.parseFloat(pArgs[++i]);
+                    break;
+                case "--rotation-epsilon":
+                    rotationEpsilon = Float.parseFloat(pArgs[++i]);
+                    break;
+                case "--keyframe-millis":
+                    keyframeIntervalMillis = Long.parseLong(pArgs[++i]);
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    roomNames.add(arg);
+            }
+        }
+        if (roomNames.isEmpty()) {
+            roomNames.add("Default");
+        }
+
+        final Random random = new Random();
+        final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(threads);
+        final List<HeadlessPeer> peers = new ArrayList<>();
+        final List<Future<?>> starts = new ArrayList<>();
+        for (final String roomName : roomNames) {
+            final GameConfig config = new GameConfig();
+            config.setRoomName(roomName);
+            config.setNetworkStack(netStack);
+            if (!Util.isBlank(netOptions)) {
+                config.putNetworkSystemProperty("jgroups.tcpping.initial_hosts", netOptions);
+            }
+            config.setWishPiecesX(piecesX);
+            config.setWishPiecesY(piecesY);
+            config.setWireFormat(wireFormat);
+            config.setTickHz(tickHz);
+            config.setSendHz(sendHz);
+            config.getRules()._maxTankSendHz = maxTankSendHz;
+            config.getRules()._positionEpsilon = positionEpsilon;
+            config.getRules()._rotationEpsilon = rotationEpsilon;
+            config.getRules()._keyframeIntervalMillis = keyframeIntervalMillis;
+            // without seed every room gets its own map
+            config.getRules()._mapSeed = mapSeed != null ? mapSeed : random.nextLong();
+            config.getRules()._mapObstacles = obstacleCount;
+            // replaces size, rules and obstacles above
+            config.setMapFile(mapFile);
+
+            final HeadlessPeer peer = new HeadlessPeer(config);
+            peers.add(peer);
+            // joining a cluster blocks for the join timeout, so connect all rooms in parallel
+            starts.add(Util.EXECUTOR_SERVICE.submit(() -> peer.start(scheduler)));
+        }
+        for (final Future<?> start : starts) {
+            start.get();
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            peers.forEach(HeadlessPeer::stop);
+            scheduler.shutdown();
+            Util.EXECUTOR_SERVICE.shutdown();
+        }));
+        LOG.info("Hosting {} room(s) with {} thread(s)", peers.size(), threads);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.model.DistributedWorld;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * World size and population shared by all benchmarks; a fresh world is built per iteration, since the simulation mutates it.
+ */
+@State(Scope.Thread)
+public abstract class AbstractWorldBenchmark {
+
+    @Param("40")
+    public int _piecesX;
+
+    @Param("24")
+    public int _piecesY;
+
+    @Param({
+            "4",
+            "64"
+    })
+    public int _tanks;
+
+    @Param({
+            "16",
+            "256"
+    })
+    public int _bullets;
+
+    @Param({
+            "20",
+            "200"
+    })
+    public int _obstacles;
+
+    protected DistributedWorld _world;
+
+    @Setup(Level.Iteration)
+    public final void setUpWorld() throws Exception {
+        _world = WorldFixture.createWorld(_piecesX, _piecesY, _tanks, _bullets, _obstacles);
+        setUp();
+    }
+
+    @TearDown(Level.Iteration)
+    public final void tearDownWorld() {
+        _world.dispose();
+        _world = null;
+    }
+
+    protected void setUp() throws Exception {
+        // nothing by default
+    }
+
+}
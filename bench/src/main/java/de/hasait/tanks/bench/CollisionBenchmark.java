@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.model.Obstacle;
+import de.hasait.tanks.app.common.model.Tank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact intersection tests of every tank against every other tank and obstacle, without the broadphase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark extends AbstractWorldBenchmark {
+
+    private Tank[] _tankArray;
+    private Obstacle[] _obstacleArray;
+
+    @Benchmark
+    public int intersects() {
+        int count = 0;
+        for (final Tank tank : _tankArray) {
+            for (final Tank otherTank : _tankArray) {
+                if (tank != otherTank && tank.intersects(otherTank) >= 0.0f) {
+                    count++;
+                }
+            }
+            for (final Obstacle obstacle : _obstacleArray) {
+                if (tank.intersects(obstacle) >= 0.0f) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void setUp() {
+        _tankArray = _world.getWorld().getTanks().toArray(new Tank[0]);
+        _obstacleArray = _world.getWorld().getObstacles().toArray(new Obstacle[0]);
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.util.common.Abstract2DScreen;
+import de.hasait.tanks.util.common.input.ConfiguredAction;
+
+/**
+ * Action with a fixed state, replacing input devices in benchmarks.
+ */
+public class ConstantAction implements ConfiguredAction {
+
+    private final float _state;
+
+    public ConstantAction(final float pState) {
+        super();
+
+        _state = pState;
+    }
+
+    @Override
+    public void dispose() {
+        // nothing to release
+    }
+
+    @Override
+    public float getState() {
+        return _state;
+    }
+
+    @Override
+    public void init(final Abstract2DScreen<?> pScreen) {
+        // no input to register
+    }
+
+}
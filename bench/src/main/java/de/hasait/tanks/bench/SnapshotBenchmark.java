@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.msg.WorldSnapshotCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding the state snapshot a joining node receives; its size is reported as secondary result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark extends AbstractWorldBenchmark {
+
+    private final ByteArrayOutputStream _output = new ByteArrayOutputStream(64 * 1024);
+    private byte[] _snapshot;
+
+    @Benchmark
+    public int readState(final Sizes pSizes) throws Exception {
+        pSizes._snapshotBytes = _snapshot.length;
+        return WorldSnapshotCodec.read(new ByteArrayInputStream(_snapshot)).getWorld().getTanks().size();
+    }
+
+    @Benchmark
+    public int writeState(final Sizes pSizes) throws Exception {
+        pSizes._snapshotBytes = _snapshot.length;
+        return write();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        write();
+        _snapshot = _output.toByteArray();
+    }
+
+    private int write() throws Exception {
+        _output.reset();
+        _world.writeState(_output);
+        return _output.size();
+    }
+
+    /**
+     * Size of the snapshot.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public long _snapshotBytes;
+
+    }
+
+}
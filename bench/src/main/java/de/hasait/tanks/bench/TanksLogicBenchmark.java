@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.TanksLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation tick for all local tanks of the world.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TanksLogicBenchmark extends AbstractWorldBenchmark {
+
+    private static final int TICK_HZ = 60;
+
+    private TanksLogic _tanksLogic;
+    private long _timeMillis;
+
+    @Benchmark
+    public void update() {
+        _timeMillis += 1000L / TICK_HZ;
+        _tanksLogic.update(_timeMillis, 1.0f / TICK_HZ);
+    }
+
+    @Override
+    protected void setUp() {
+        _tanksLogic = new TanksLogic(_world, () -> {
+        });
+        _tanksLogic.setSendHz(TICK_HZ / 2);
+        _timeMillis = System.currentTimeMillis();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.model.Tank;
+import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.app.common.msg.UpdateMsg;
+import de.hasait.tanks.app.common.msg.UpdateMsgCodec;
+import org.jgroups.util.Util;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding an UpdateMsg with the state of every tank (bullets are not replicated while flying), binary codec versus Java serialization.
+ * <p>
+ * Message sizes are reported as secondary results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UpdateMsgBenchmark extends AbstractWorldBenchmark {
+
+    private static final float STEP = 2.0f;
+
+    private UpdateMsg[] _updateMsgs;
+    private UpdateMsgCodec _codec;
+    private int _round;
+    private int _keyframeBytes, _deltaBytes, _javaBytes;
+
+    @Benchmark
+    public byte[] encodeBinary(final Sizes pSizes) throws Exception {
+        report(pSizes);
+        final byte[] encoded = _codec.encode(_updateMsgs[_round]);
+        _round = (_round + 1) % _updateMsgs.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public byte[] encodeJava(final Sizes pSizes) throws Exception {
+        report(pSizes);
+        final byte[] encoded = Util.objectToByteBuffer(_updateMsgs[_round]);
+        _round = (_round + 1) % _updateMsgs.length;
+        return encoded;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        // messages alternate between two positions, so the codec has to encode deltas
+        _updateMsgs = new UpdateMsg[2];
+        for (int round = 0; round < _updateMsgs.length; round++) {
+            final UpdateMsg updateMsg = new UpdateMsg();
+            for (final Tank tank : _world.getWorld().getTanks()) {
+                final TankState state = tank.getState().clone();
+                state._centerX += round * STEP;
+                state._rotation += round * STEP;
+                updateMsg._tanks.add(state);
+            }
+            _updateMsgs[round] = updateMsg;
+        }
+        _codec = new UpdateMsgCodec();
+        _round = 0;
+
+        final UpdateMsgCodec sizeCodec = new UpdateMsgCodec();
+        _keyframeBytes = sizeCodec.encode(_updateMsgs[0]).length;
+        _deltaBytes = sizeCodec.encode(_updateMsgs[1]).length;
+        _javaBytes = Util.objectToByteBuffer(_updateMsgs[0]).length;
+    }
+
+    private void report(final Sizes pSizes) {
+        pSizes._binaryKeyframeBytes = _keyframeBytes;
+        pSizes._binaryDeltaBytes = _deltaBytes;
+        pSizes._javaBytes = _javaBytes;
+    }
+
+    /**
+     * Encoded sizes of one UpdateMsg.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public long _binaryKeyframeBytes;
+        public long _binaryDeltaBytes;
+        public long _javaBytes;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import de.hasait.tanks.app.common.model.Tank;
+import de.hasait.tanks.app.common.model.TankState;
+import de.hasait.tanks.app.common.model.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying received tank states, including bounds and spatial index maintenance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldApplyBenchmark extends AbstractWorldBenchmark {
+
+    private static final float STEP = 3.0f;
+
+    private TankState[][] _states;
+    private int _round;
+
+    @Benchmark
+    public void apply() {
+        final World world = _world.getWorld();
+        for (final TankState state : _states[_round]) {
+            world.apply(state);
+        }
+        _round = (_round + 1) % _states.length;
+    }
+
+    @Override
+    protected void setUp() {
+        // states moving back and forth, so the benchmark never applies the current state again
+        final Collection<Tank> tanks = _world.getWorld().getTanks();
+        _states = new TankState[2][tanks.size()];
+        int i = 0;
+        for (final Tank tank : tanks) {
+            final TankState state = tank.getState();
+            for (int round = 0; round < _states.length; round++) {
+                final TankState roundState = state.clone();
+                roundState._centerX += round * STEP;
+                roundState._rotation += round * STEP;
+                _states[round][i] = roundState;
+            }
+            i++;
+        }
+        _round = 0;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.bench;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import de.hasait.tanks.app.common.TanksLogic;
+import de.hasait.tanks.app.common.model.DistributedWorld;
+import de.hasait.tanks.app.common.model.PlayerConfig;
+import de.hasait.tanks.app.common.model.Rules;
+import de.hasait.tanks.app.common.model.Tank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds offline worlds with a reproducible population of tanks, bullets and obstacles.
+ */
+public final class WorldFixture {
+
+    private static final long SEED = 4711L;
+    private static final int MAX_SPAWN_ATTEMPTS = 100;
+
+    private WorldFixture() {
+        super();
+    }
+
+    /**
+     * Tanks keep driving in circles without firing, so the bullets are the initial population only.
+     */
+    public static DistributedWorld createWorld(final int pPiecesX, final int pPiecesY, final int pTankCount, final int pBulletCount,
+                                               final int pObstacleCount) {
+        MathUtils.random.setSeed(SEED);
+
+        final DistributedWorld world = new DistributedWorld();
+        world.connectOffline(pPiecesX, pPiecesY);
+
+        final Rules rules = new Rules();
+        rules._spawnTimeMillis = 0L;
+        rules._mapSeed = SEED;
+        rules._mapObstacles = pObstacleCount;
+        world.networkSend(rules);
+
+        for (int i = 0; i < pTankCount; i++) {
+            world.createTank(createPlayerConfig("Bench" + i));
+        }
+
+        // respawn places the tanks, retry for those which hit something
+        final TanksLogic tanksLogic = new TanksLogic(world, () -> {
+        });
+        final long timeMillis = TimeUtils.millis() + 1L;
+        for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS && !allSpawned(world); attempt++) {
+            tanksLogic.update(timeMillis, 0.0f);
+        }
+
+        final List<Tank> tanks = new ArrayList<>(world.getWorld().getTanks());
+        for (int i = 0; i < pBulletCount && !tanks.isEmpty(); i++) {
+            world.createBullet(tanks.get(i % tanks.size()), timeMillis);
+        }
+
+        return world;
+    }
+
+    private static boolean allSpawned(final DistributedWorld pWorld) {
+        return pWorld.getWorld().getTanks().stream().allMatch(pTank -> pTank.getState()._spawnAtMillis == null);
+    }
+
+    private static PlayerConfig createPlayerConfig(final String pName) {
+        final PlayerConfig playerConfig = new PlayerConfig();
+        playerConfig.setName(pName);
+        playerConfig.setMoveForward(new ConstantAction(1.0f));
+        playerConfig.setMoveBackward(new ConstantAction(0.0f));
+        playerConfig.setRotateLeft(new ConstantAction(0.25f));
+        playerConfig.setRotateRight(new ConstantAction(0.0f));
+        playerConfig.setTurrentRotateLeft(new ConstantAction(0.5f));
+        playerConfig.setTurrentRotateRight(new ConstantAction(0.0f));
+        playerConfig.setFire(new ConstantAction(0.0f));
+        return playerConfig;
+    }
+
+}
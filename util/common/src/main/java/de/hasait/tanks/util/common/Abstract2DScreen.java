@@ -24,9 +24,14 @@
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
@@ -60,6 +65,11 @@
     private final List<Disposable> _disposables = new ArrayList<>();
 
     private final OrthographicCamera _camera;
+    /**
+     * Text is drawn at fixed viewport coordinates, independent of the camera position.
+     */
+    private final Matrix4 _textProjection = new Matrix4();
+    private boolean _textProjectionActive;
 
     private final InputMultiplexer _inputMultiplexer = new InputMultiplexer();
 
@@ -73,6 +83,7 @@
     private int _textLine;
     private Skin _skin;
     private long _timeMillis;
+    private int _lastRenderCalls;
 
     protected Abstract2DScreen(final C pContext, final int pViewportW, final int pViewportH) {
         super();
@@ -84,6 +95,7 @@ protected Abstract2DScreen(final C pContext, final int pViewportW, final int pVi
         _viewportR = new Rectangle(0, 0, _viewportW, _viewportH);
 
         _camera = new OrthographicCamera();
+        _textProjection.setToOrtho2D(0, 0, _viewportW, _viewportH);
         _backgroundColor = Color.BLACK;
         _stage = new Stage(new ScalingViewport(Scaling.fit, _viewportW, _viewportH, _camera), _context.getBatch());
         _inputMultiplexer.addProcessor(_stage);
@@ -128,6 +140,10 @@ public final void pause() {
     @Override
     public final void render(final float pDelta) {
         _timeMillis = TimeUtils.millis();
+        if (renderOffscreen()) {
+            // frame buffers reset the viewport to the whole window
+            _stage.getViewport().apply();
+        }
         Gdx.gl.glClearColor(_backgroundColor.r, _backgroundColor.g, _backgroundColor.b, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
@@ -136,10 +152,12 @@ public final void render(final float pDelta) {
         _camera.update();
         final SpriteBatch batch = _context.getBatch();
         batch.setProjectionMatrix(_camera.combined);
+        _textProjectionActive = false;
         batch.begin();
         _textLine = 0;
         renderInternal(pDelta);
         batch.end();
+        _lastRenderCalls = batch.renderCalls;
     }
 
     @Override
@@ -220,6 +238,10 @@ protected final void drawText(final int pLine, final CharSequence pText, final A
     }
 
     protected final void drawText(final int pLine, final CharSequence pText, final AlignH pAlignH, final AlignV pAlignV) {
+        if (!_textProjectionActive) {
+            _context.getBatch().setProjectionMatrix(_textProjection);
+            _textProjectionActive = true;
+        }
         final BitmapFont font = _context.getFont();
         final float y = pAlignV.getY(_viewportH, font.getLineHeight(), _textMargin) + pLine * font.getLineHeight();
         final int alignH = pAlignH.getAlign();
@@ -227,11 +249,17 @@ protected final void drawText(final int pLine, final CharSequence pText, final A
     }
 
     protected final void drawTexture(final Texture pTexture, final float pCX, final float pCY, final int pW, final int pH, final float pR) {
+        useCameraProjection();
         _context.getBatch().draw(pTexture, pCX - pW / 2, pCY - pH / 2, pW / 2, pH / 2, pW, pH, 1, 1, pR, 0, 0, pTexture.getWidth(),
                 pTexture.getHeight(), false, false
         );
     }
 
+    protected final void drawTexture(final TextureRegion pRegion, final float pCX, final float pCY, final int pW, final int pH, final float pR) {
+        useCameraProjection();
+        _context.getBatch().draw(pRegion, pCX - pW / 2, pCY - pH / 2, pW / 2, pH / 2, pW, pH, 1, 1, pR);
+    }
+
     protected final Color getBackgroundColor() {
         return _backgroundColor;
     }
@@ -274,6 +302,31 @@ protected final void setTextMargin(final float pTextMargin) {
         _textMargin = pTextMargin;
     }
 
+    /**
+     * @return draw calls (batch flushes) of the screen content in the last frame, without the stage.
+     */
+    protected final int getLastRenderCalls() {
+        return _lastRenderCalls;
+    }
+
+    protected final float getCameraX() {
+        return _camera.position.x;
+    }
+
+    protected final float getCameraY() {
+        return _camera.position.y;
+    }
+
+    /**
+     * Center the viewport on the given world position; call before drawing.
+     */
+    protected final void setCameraPosition(final float pX, final float pY) {
+        _camera.position.set(pX, pY, 0.0f);
+        _camera.update();
+        _textProjectionActive = true;
+        useCameraProjection();
+    }
+
     protected final long getTimeMillis() {
         return _timeMillis;
     }
@@ -299,6 +352,33 @@ protected final Texture loadTexture(final String pPath) {
         return texture;
     }
 
+    /**
+     * Pack the images into one texture, so drawing them does not flush the batch on every switch; regions are named by the file
+     * name without extension.
+     */
+    protected final TextureAtlas loadTextureAtlas(final int pPageSize, final String... pPaths) {
+        final PixmapPacker packer = new PixmapPacker(pPageSize, pPageSize, Pixmap.Format.RGBA8888, 2, true);
+        for (final String path : pPaths) {
+            final Pixmap pixmap = new Pixmap(Gdx.files.internal(path));
+            packer.pack(Gdx.files.internal(path).nameWithoutExtension(), pixmap);
+            pixmap.dispose();
+        }
+        final TextureAtlas atlas = packer.generateTextureAtlas(Texture.TextureFilter.MipMapLinearNearest, Texture.TextureFilter.Linear, true);
+        addDisposable(atlas);
+        // the page textures are managed and reload from the packer pixmaps
+        addDisposable(packer);
+        return atlas;
+    }
+
+    /**
+     * Called before the screen is cleared and the batch begins, e.g. to update frame buffers.
+     *
+     * @return true if anything was rendered.
+     */
+    protected boolean renderOffscreen() {
+        return false;
+    }
+
     protected abstract void renderInternal(final float pDelta);
 
     protected final void setScreen(final Screen pScreen) {
@@ -318,6 +398,13 @@ protected final void toggleBackgroundMusic() {
         }
     }
 
+    private void useCameraProjection() {
+        if (_textProjectionActive) {
+            _context.getBatch().setProjectionMatrix(_camera.combined);
+            _textProjectionActive = false;
+        }
+    }
+
     private Skin getSkin() {
         if (_skin == null) {
             _skin = new Skin(Gdx.files.classpath("uiskin.json"));
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Map with primitive long keys for read mostly data: lookups and iteration are lock free on an immutable snapshot, every
+ * modification publishes a new snapshot.
+ */
+public final class CopyOnWriteLongMap<V> {
+
+    private volatile Snapshot<V> _snapshot = new Snapshot<>(new LongMap<>(), Collections.emptyList());
+
+    public boolean containsKey(final long pKey) {
+        return _snapshot._map.containsKey(pKey);
+    }
+
+    public V get(final long pKey) {
+        return _snapshot._map.get(pKey);
+    }
+
+    public boolean isEmpty() {
+        return _snapshot._values.isEmpty();
+    }
+
+    public synchronized V put(final long pKey, final V pValue) {
+        final LongMap<V> map = new LongMap<>(_snapshot._map);
+        final V oldValue = map.put(pKey, pValue);
+        publish(map);
+        return oldValue;
+    }
+
+    /**
+     * Add all values whose key is not contained yet with a single copy.
+     *
+     * @return number of values added.
+     */
+    public synchronized int putAllIfAbsent(final Collection<? extends V> pValues, final ToLongFunction<? super V> pKeyFunction) {
+        LongMap<V> map = null;
+        int added = 0;
+        for (final V value : pValues) {
+            final long key = pKeyFunction.applyAsLong(value);
+            if (!_snapshot._map.containsKey(key) && (map == null || !map.containsKey(key))) {
+                if (map == null) {
+                    map = new LongMap<>(_snapshot._map);
+                }
+                map.put(key, value);
+                added++;
+            }
+        }
+        if (map != null) {
+            publish(map);
+        }
+        return added;
+    }
+
+    /**
+     * @return existing value; null if the given value was added.
+     */
+    public synchronized V putIfAbsent(final long pKey, final V pValue) {
+        final V oldValue = _snapshot._map.get(pKey);
+        if (oldValue != null) {
+            return oldValue;
+        }
+        final LongMap<V> map = new LongMap<>(_snapshot._map);
+        map.put(pKey, pValue);
+        publish(map);
+        return null;
+    }
+
+    public synchronized V remove(final long pKey) {
+        if (!_snapshot._map.containsKey(pKey)) {
+            return null;
+        }
+        final LongMap<V> map = new LongMap<>(_snapshot._map);
+        final V oldValue = map.remove(pKey);
+        publish(map);
+        return oldValue;
+    }
+
+    public void removeIf(final Predicate<? super V> pPredicate) {
+        removeIf(pPredicate, pValue -> {
+            // nop
+        });
+    }
+
+    /**
+     * Remove all values matching the predicate with a single copy; removed values are passed to the consumer.
+     */
+    public synchronized void removeIf(final Predicate<? super V> pPredicate, final Consumer<? super V> pRemoved) {
+        LongMap<V> map = null;
+        final Iterator<LongMap.Entry<V>> entryI = new LongMap.Entries<>(_snapshot._map);
+        while (entryI.hasNext()) {
+            final LongMap.Entry<V> entry = entryI.next();
+            if (pPredicate.test(entry.value)) {
+                if (map == null) {
+                    map = new LongMap<>(_snapshot._map);
+                }
+                map.remove(entry.key);
+                pRemoved.accept(entry.value);
+            }
+        }
+        if (map != null) {
+            publish(map);
+        }
+    }
+
+    public int size() {
+        return _snapshot._values.size();
+    }
+
+    /**
+     * @return unmodifiable snapshot of the values, not affected by later modifications.
+     */
+    public Collection<V> values() {
+        return _snapshot._values;
+    }
+
+    private void publish(final LongMap<V> pMap) {
+        final List<V> values = new ArrayList<>(pMap.size);
+        for (final V value : new LongMap.Values<>(pMap)) {
+            values.add(value);
+        }
+        _snapshot = new Snapshot<>(pMap, Collections.unmodifiableList(values));
+    }
+
+    private static final class Snapshot<V> {
+
+        private final LongMap<V> _map;
+        private final List<V> _values;
+
+        private Snapshot(final LongMap<V> pMap, final List<V> pValues) {
+            super();
+
+            _map = pMap;
+            _values = pValues;
+        }
+
+    }
+
+}
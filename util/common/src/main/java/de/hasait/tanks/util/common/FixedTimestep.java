@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+/**
+ * Accumulator decoupling a fixed simulation step from the variable frame delta.
+ */
+public final class FixedTimestep {
+
+    /**
+     * Upper bound for steps per frame, so a long stall does not snowball into ever longer frames.
+     */
+    public static final int MAX_STEPS_PER_ADVANCE = 5;
+
+    private final float _stepSeconds;
+
+    private float _accumulatorSeconds;
+
+    public FixedTimestep(final int pStepsPerSecond) {
+        super();
+
+        if (pStepsPerSecond <= 0) {
+            throw new IllegalArgumentException("pStepsPerSecond <= 0: " + pStepsPerSecond);
+        }
+
+        _stepSeconds = 1.0f / pStepsPerSecond;
+    }
+
+    /**
+     * Run <code>pStep</code> once for every full step elapsed.
+     *
+     * @return fraction of the next step already elapsed, for interpolating between the previous and the current step.
+     */
+    public float advance(final float pDeltaSeconds, final Runnable pStep) {
+        _accumulatorSeconds += pDeltaSeconds;
+        int steps = 0;
+        while (_accumulatorSeconds >= _stepSeconds) {
+            if (steps == MAX_STEPS_PER_ADVANCE) {
+                _accumulatorSeconds = 0.0f;
+                break;
+            }
+            pStep.run();
+            _accumulatorSeconds -= _stepSeconds;
+            steps++;
+        }
+        return _accumulatorSeconds / _stepSeconds;
+    }
+
+    public float getStepSeconds() {
+        return _stepSeconds;
+    }
+
+}
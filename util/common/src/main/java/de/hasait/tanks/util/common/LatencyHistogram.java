@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free latency histogram with power of two buckets of nanoseconds, so recording is cheap enough for every tick; percentiles
+ * are accurate to a factor of two.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray _buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _sumNanos = new AtomicLong();
+    private final AtomicLong _maxNanos = new AtomicLong();
+
+    private static double toMillis(final long pNanos) {
+        return pNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getCount() {
+        return _count.get();
+    }
+
+    public double getMaxMillis() {
+        return toMillis(_maxNanos.get());
+    }
+
+    public double getMeanMillis() {
+        final long count = _count.get();
+        return count == 0 ? 0.0 : toMillis(_sumNanos.get()) / count;
+    }
+
+    /**
+     * @param pPercentile 0 to 100.
+     * @return upper bound of the bucket containing the percentile.
+     */
+    public double getPercentileMillis(final double pPercentile) {
+        final long count = _count.get();
+        if (count == 0) {
+            return 0.0;
+        }
+        final long rank = (long) Math.ceil(count * pPercentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += _buckets.get(bucket);
+            if (seen >= rank) {
+                return toMillis(Math.min(_maxNanos.get(), bucket == 63 ? Long.MAX_VALUE : (1L << bucket + 1) - 1));
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return <code>System.nanoTime()</code>, to be passed to {@link #stop(long)}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(final long pStartNanos) {
+        record(System.nanoTime() - pStartNanos);
+    }
+
+    public void record(final long pNanos) {
+        final long nanos = Math.max(0L, pNanos);
+        _buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1L));
+        _count.incrementAndGet();
+        _sumNanos.addAndGet(nanos);
+        long max;
+        while ((max = _maxNanos.get()) < nanos && !_maxNanos.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            _buckets.set(bucket, 0L);
+        }
+        _count.set(0L);
+        _sumNanos.set(0L);
+        _maxNanos.set(0L);
+    }
+
+}
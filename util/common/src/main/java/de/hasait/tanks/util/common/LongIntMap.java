@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import java.util.Arrays;
+
+/**
+ * Map from long to int without boxing: open addressing with linear probing in two parallel arrays. The key 0 marks an empty
+ * slot and cannot be stored. Not thread safe.
+ */
+public final class LongIntMap {
+
+    private static final long EMPTY = 0L;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] _keys;
+    private int[] _values;
+    private int _mask;
+    private int _shift;
+    private int _size;
+    private int _threshold;
+
+    public LongIntMap(final int pInitialCapacity) {
+        super();
+
+        allocate(Math.max(4, Integer.highestOneBit(Math.max(1, (int) (pInitialCapacity / LOAD_FACTOR)) - 1) << 1));
+    }
+
+    public void clear() {
+        Arrays.fill(_keys, EMPTY);
+        _size = 0;
+    }
+
+    public boolean containsKey(final long pKey) {
+        return _keys[find(pKey)] != EMPTY;
+    }
+
+    /**
+     * @return the value of the key or <code>pDefaultValue</code> if absent.
+     */
+    public int get(final long pKey, final int pDefaultValue) {
+        final int index = find(pKey);
+        return _keys[index] != EMPTY ? _values[index] : pDefaultValue;
+    }
+
+    public void put(final long pKey, final int pValue) {
+        if (pKey == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        final int index = find(pKey);
+        if (_keys[index] == EMPTY) {
+            _keys[index] = pKey;
+            if (++_size > _threshold) {
+                _values[index] = pValue;
+                resize(_keys.length << 1);
+                return;
+            }
+        }
+        _values[index] = pValue;
+    }
+
+    /**
+     * @return the removed value or <code>pDefaultValue</code> if absent.
+     */
+    public int remove(final long pKey, final int pDefaultValue) {
+        int index = find(pKey);
+        if (_keys[index] == EMPTY) {
+            return pDefaultValue;
+        }
+        final int value = _values[index];
+        _size--;
+        // shift following entries of the probe sequence back, so lookups need no tombstones
+        int next = (index + 1) & _mask;
+        while (_keys[next] != EMPTY) {
+            final int home = hash(_keys[next]);
+            if (((next - home) & _mask) >= ((next - index) & _mask)) {
+                _keys[index] = _keys[next];
+                _values[index] = _values[next];
+                index = next;
+            }
+            next = (next + 1) & _mask;
+        }
+        _keys[index] = EMPTY;
+        return value;
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    private void allocate(final int pCapacity) {
+        _keys = new long[pCapacity];
+        _values = new int[pCapacity];
+        _mask = pCapacity - 1;
+        _shift = Long.numberOfLeadingZeros(pCapacity - 1);
+        _threshold = (int) (pCapacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return index of the key or of the empty slot where it belongs.
+     */
+    private int find(final long pKey) {
+        int index = hash(pKey);
+        while (_keys[index] != EMPTY && _keys[index] != pKey) {
+            index = (index + 1) & _mask;
+        }
+        return index;
+    }
+
+    private int hash(final long pKey) {
+        // Fibonacci hashing, ids differ mostly in the low bits of the counter
+        return (int) ((pKey * 0x9E3779B97F4A7C15L) >>> _shift) & _mask;
+    }
+
+    private void resize(final int pCapacity) {
+        final long[] keys = _keys;
+        final int[] values = _values;
+        allocate(pCapacity);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                final int index = find(keys[i]);
+                _keys[index] = keys[i];
+                _values[index] = values[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total of events (e.g. messages or bytes) plus the rate over the last completed second.
+ * <p>
+ * Windows are whole seconds of the clock, rolled by {@link #add(long)} and by reading; so all readers see the same rate, no
+ * matter how often they read.
+ */
+public final class RateCounter {
+
+    private static final long WINDOW_MILLIS = 1000L;
+
+    private final AtomicLong _total = new AtomicLong();
+
+    private long _window = System.currentTimeMillis() / WINDOW_MILLIS;
+    private long _windowAmount;
+    private long _completedWindowAmount;
+
+    public synchronized void add(final long pAmount) {
+        _total.addAndGet(pAmount);
+        roll(System.currentTimeMillis());
+        _windowAmount += pAmount;
+    }
+
+    public synchronized double getRatePerSecond() {
+        roll(System.currentTimeMillis());
+        return _completedWindowAmount * 1000.0 / WINDOW_MILLIS;
+    }
+
+    public long getTotal() {
+        return _total.get();
+    }
+
+    private void roll(final long pNowMillis) {
+        final long window = pNowMillis / WINDOW_MILLIS;
+        if (window != _window) {
+            // nothing added in the windows between
+            _completedWindowAmount = window == _window + 1 ? _windowAmount : 0L;
+            _window = window;
+            _windowAmount = 0L;
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * LEB128 style variable length integers; signed variants use zigzag encoding so small negative values stay short.
+ */
+public final class VarInts {
+
+    private VarInts() {
+        super();
+    }
+
+    public static int readSignedVarInt(final DataInput pInput) throws IOException {
+        final int value = readVarInt(pInput);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static long readSignedVarLong(final DataInput pInput) throws IOException {
+        final long value = readVarLong(pInput);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static int readVarInt(final DataInput pInput) throws IOException {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            final byte b = pInput.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IOException("VarInt too long");
+            }
+        }
+    }
+
+    public static long readVarLong(final DataInput pInput) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            final byte b = pInput.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("VarLong too long");
+            }
+        }
+    }
+
+    public static int sizeOfVarInt(final int pValue) {
+        int value = pValue;
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static int sizeOfVarLong(final long pValue) {
+        long value = pValue;
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static void writeSignedVarInt(final DataOutput pOutput, final int pValue) throws IOException {
+        writeVarInt(pOutput, (pValue << 1) ^ (pValue >> 31));
+    }
+
+    public static void writeSignedVarLong(final DataOutput pOutput, final long pValue) throws IOException {
+        writeVarLong(pOutput, (pValue << 1) ^ (pValue >> 63));
+    }
+
+    public static void writeVarInt(final DataOutput pOutput, final int pValue) throws IOException {
+        int value = pValue;
+        while ((value & ~0x7F) != 0) {
+            pOutput.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        pOutput.writeByte(value);
+    }
+
+    public static void writeVarLong(final DataOutput pOutput, final long pValue) throws IOException {
+        long value = pValue;
+        while ((value & ~0x7FL) != 0) {
+            pOutput.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        pOutput.writeByte((int) value);
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common.input;
+
+import de.hasait.tanks.util.common.Abstract2DScreen;
+
+/**
+ * Replays a fixed sequence of states, one per {@link #getState()} call, starting over at the end; input for bots and load tests.
+ */
+public class ScriptedAction implements ConfiguredAction {
+
+    private final float[] _script;
+
+    private int _index;
+
+    /**
+     * @param pScript states between 0 and 1; not copied.
+     */
+    public ScriptedAction(final float[] pScript) {
+        super();
+
+        if (pScript.length == 0) {
+            throw new IllegalArgumentException("Empty script");
+        }
+
+        _script = pScript;
+    }
+
+    @Override
+    public void dispose() {
+        // nothing to release
+    }
+
+    @Override
+    public float getState() {
+        final float state = _script[_index];
+        _index = (_index + 1) % _script.length;
+        return state;
+    }
+
+    @Override
+    public void init(final Abstract2DScreen<?> pScreen) {
+        // no input to register
+    }
+
+    @Override
+    public String toString() {
+        return "Script of " + _script.length;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.tanks.util.common;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class LongIntMapTest {
+
+    @Test
+    public void putGetRemove() {
+        final LongIntMap map = new LongIntMap(4);
+        map.put(1L, 10);
+        map.put(Long.MIN_VALUE, 20);
+        map.put(1L, 11);
+        assertEquals(2, map.size());
+        assertEquals(11, map.get(1L, -1));
+        assertEquals(20, map.get(Long.MIN_VALUE, -1));
+        assertEquals(-1, map.get(2L, -1));
+        assertEquals(11, map.remove(1L, -1));
+        assertEquals(-1, map.remove(1L, -1));
+        assertFalse(map.containsKey(1L));
+        assertTrue(map.containsKey(Long.MIN_VALUE));
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(Long.MIN_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroKeyIsRejected() {
+        new LongIntMap(4).put(0L, 1);
+    }
+
+    /**
+     * Removals shift colliding entries back; compare against a HashMap under random operations.
+     */
+    @Test
+    public void randomOperationsMatchHashMap() {
+        final Random random = new Random(4711L);
+        final LongIntMap map = new LongIntMap(1);
+        final Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            // few distinct keys, so probe sequences collide and entries are removed from their middle
+            final long key = 1L + random.nextInt(500) * 64L;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                final Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = 1L; key < 500L * 64L; key += 64L) {
+            final Integer value = expected.get(key);
+            assertEquals(value == null ? -1 : value, map.get(key, -1));
+        }
+    }
+
+}